@@ -1,9 +1,13 @@
 package com.madeby.apigateway.filter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,13 +20,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
-import java.util.Optional;
-
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 검증 필터
+ * 서명 검증 parser는 기동 시 한 번만 만들어 재사용하고(불변, thread-safe),
+ * 검증에 성공한 토큰의 Claims는 토큰 해시를 키로 만료 시각(exp)까지 캐시해
+ * 같은 세션의 반복 요청은 서명 검증/파싱 없이 처리한다.
+ */
 @Slf4j
 @Component
 public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
@@ -30,10 +42,45 @@ public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
     @Value("${jwt.secret.key}")
     private String jwtSecret;
 
+    @Value("${jwt.claims-cache.max-size:100000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${jwt.claims-cache.max-ttl-seconds:600}")
+    private long claimsCacheMaxTtlSeconds; // exp가 먼 토큰도 이 시간이 지나면 다시 검증
+
+    private JwtParser jwtParser;
+    private Cache<String, Claims> claimsCache;
+
     public JwtFilter() {
         super(Config.class);
     }
 
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(jwtSecret)
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        return untilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return untilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
@@ -43,7 +90,7 @@ public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
             // refresh 경로 예외 처리
             String requestPath = request.getURI().getPath();
             if ("/api/user/refresh".equals(requestPath)) {
-                log.info("[JwtFilter] /api/user/refresh 요청 - 필터 제외");
+                log.debug("[JwtFilter] /api/user/refresh 요청 - 필터 제외");
                 return chain.filter(exchange); // 필터를 거치지 않고 바로 통과
             }
             String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
@@ -53,7 +100,7 @@ public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
 
                 try {
                     Claims claims = validateJwtToken(token, false); // allowExpired = false
-                    log.info("[JWT 검증 성공] 사용자 ID: {}", claims.getSubject());
+                    log.debug("[JWT 검증 성공] 사용자 ID: {}", claims.getSubject());
 
                     ServerHttpRequest modifiedRequest = request.mutate()
                             .header("X-User-Id", claims.getSubject())
@@ -80,12 +127,15 @@ public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
 
 
     private Claims validateJwtToken(String token, boolean allowExpired) {
+        String cacheKey = hash(token);
+        Claims cached = claimsCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(jwtSecret)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            claimsCache.put(cacheKey, claims);
+            return claims;
         } catch (ExpiredJwtException e) {
             if (allowExpired) {
                 log.warn("[JWT 검증] 만료된 토큰 Claims 반환 허용");
@@ -98,6 +148,27 @@ public class JwtFilter extends AbstractGatewayFilterFactory<JwtFilter.Config> {
     }
 
 
+    // 캐시 유지 시간 : 토큰 만료(exp)까지, 최대 max-ttl-seconds
+    private long untilExpiration(Claims claims) {
+        long maxTtl = TimeUnit.SECONDS.toNanos(claimsCacheMaxTtlSeconds);
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return maxTtl;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+        return Math.max(0, Math.min(remaining, maxTtl));
+    }
+
+    // 토큰 원문 대신 SHA-256 해시를 캐시 키로 사용
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Mono<Void> handleUnauthorized(ServerHttpResponse response, String message) {
         response.setStatusCode(HttpStatus.UNAUTHORIZED);
         response.getHeaders().add("Content-Type", "application/json");
@@ -0,0 +1,154 @@
+package com.madeby.apigateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madeBy.shared.common.ApiResponse;
+import com.madeBy.shared.events.SoldOutEvent;
+import com.madeBy.shared.exception.MadeByErrorCode;
+import com.madeBy.shared.util.StockRedisKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 품절 상품 주문 사전 차단
+ * product-service가 발행하는 품절 set(product_sold_out)을 메모리에 들고 있다가,
+ * 품절된 productInfoId가 들어 있는 주문 요청(POST /api/orders, /api/orders/cart)은 order-service로 보내지 않고 바로 거절한다.
+ * 품절 상품이 하나도 없으면 요청 본문을 읽지 않고 그대로 통과시킨다.
+ * pub/sub 메시지는 유실될 수 있으므로 resync-interval-ms마다 set 전체를 다시 읽는다.
+ */
+@Slf4j
+@Component
+public class SoldOutFilter extends AbstractGatewayFilterFactory<SoldOutFilter.Config> {
+
+    private static final Set<String> ORDER_PATHS = Set.of("/api/orders", "/api/orders/cart");
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${sold-out.resync-interval-ms:30000}")
+    private long resyncIntervalMillis;
+
+    private volatile Set<Long> soldOut = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService resyncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sold-out-resync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SoldOutFilter(RedissonClient redissonClient, ObjectMapper objectMapper) {
+        super(Config.class);
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        // 구독을 먼저 시작한 뒤 전체를 읽어 그 사이의 변경을 놓치지 않는다
+        redissonClient.getTopic(StockRedisKeys.SOLD_OUT_TOPIC).addListener(SoldOutEvent.class, (channel, event) -> {
+            if (event.isSoldOut()) {
+                soldOut.add(event.getProductInfoId());
+            } else {
+                soldOut.remove(event.getProductInfoId());
+            }
+        });
+        resyncExecutor.scheduleWithFixedDelay(this::resync, 0, resyncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void resync() {
+        try {
+            Set<Long> loaded = ConcurrentHashMap.newKeySet();
+            loaded.addAll(redissonClient.<String>getSet(StockRedisKeys.SOLD_OUT_KEY, StringCodec.INSTANCE).readAll().stream()
+                    .map(Long::valueOf)
+                    .collect(Collectors.toSet()));
+            soldOut = loaded;
+        } catch (Exception e) {
+            log.warn("[SoldOutFilter] 품절 목록 동기화 실패", e);
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (soldOut.isEmpty() || request.getMethod() != HttpMethod.POST
+                    || !ORDER_PATHS.contains(request.getURI().getPath())) {
+                return chain.filter(exchange);
+            }
+
+            // 본문을 캐시해 두고 읽은 뒤, 통과하는 요청은 캐시한 본문으로 다시 전달
+            return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, cachedRequest -> {
+                DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+                Long soldOutId = body == null ? null : findSoldOut(body.toString(StandardCharsets.UTF_8));
+                if (soldOutId != null) {
+                    return handleSoldOut(exchange.getResponse(), soldOutId);
+                }
+                return chain.filter(exchange.mutate().request(cachedRequest).build());
+            });
+        };
+    }
+
+    // 단일 주문({"productInfoId": ..}) 또는 장바구니 주문([{..}, ..])에서 품절 상품 찾기
+    private Long findSoldOut(String body) {
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            for (JsonNode line : root.isArray() ? root : List.of(root)) {
+                JsonNode productInfoId = line.get("productInfoId");
+                if (productInfoId != null && productInfoId.canConvertToLong() && soldOut.contains(productInfoId.asLong())) {
+                    return productInfoId.asLong();
+                }
+            }
+        } catch (Exception e) {
+            // 형식이 잘못된 요청은 order-service가 검증
+        }
+        return null;
+    }
+
+    private Mono<Void> handleSoldOut(ServerHttpResponse response, Long productInfoId) {
+        log.debug("[SoldOutFilter] 품절 상품 주문 차단: productInfoId = {}", productInfoId);
+        response.setStatusCode(HttpStatus.BAD_REQUEST);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(
+                    ApiResponse.failure(MadeByErrorCode.SOLD_OUT.name(), MadeByErrorCode.SOLD_OUT.getMessage()));
+        } catch (Exception e) {
+            body = ("{\"success\": false, \"error\": {\"code\": \"SOLD_OUT\"}}").getBytes(StandardCharsets.UTF_8);
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resyncExecutor.shutdown();
+    }
+
+    @Data
+    public static class Config {
+    }
+}
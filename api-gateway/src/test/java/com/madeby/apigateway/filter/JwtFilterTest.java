@@ -0,0 +1,132 @@
+package com.madeby.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtFilterTest {
+
+    private static final byte[] SECRET = "madeby-jwt-filter-test-secret-key-0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private JwtFilter jwtFilter;
+    private GatewayFilter filter;
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        jwtFilter = new JwtFilter();
+        ReflectionTestUtils.setField(jwtFilter, "jwtSecret", Base64.getEncoder().encodeToString(SECRET));
+        ReflectionTestUtils.setField(jwtFilter, "claimsCacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(jwtFilter, "claimsCacheMaxTtlSeconds", 600L);
+        jwtFilter.init();
+        filter = jwtFilter.apply(new JwtFilter.Config());
+    }
+
+    @Test
+    void forwardsClaimsAsHeadersAndCachesThem() {
+        String token = token(60_000);
+
+        MockServerWebExchange exchange = request(token);
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertEquals("1", headers.getFirst("X-User-Id"));
+        assertEquals("ROLE_USER", headers.getFirst("X-User-Role"));
+        assertEquals("true", headers.getFirst("X-User-Enabled"));
+        assertEquals(1, claimsCache().estimatedSize());
+
+        // 같은 토큰은 캐시된 Claims로 처리
+        forwarded.set(null);
+        filter.filter(request(token), chain).block();
+        assertEquals("1", forwarded.get().getRequest().getHeaders().getFirst("X-User-Id"));
+        assertEquals(1, claimsCache().estimatedSize());
+    }
+
+    @Test
+    void cachedClaimsExpireWithToken() throws InterruptedException {
+        String token = token(1_500);
+        filter.filter(request(token), chain).block();
+        assertNotNull(forwarded.get());
+
+        Thread.sleep(2_000);
+        forwarded.set(null);
+        MockServerWebExchange exchange = request(token);
+        filter.filter(exchange, chain).block();
+
+        // exp가 지나면 캐시에서도 빠지고 다시 검증해 만료로 거절
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("expired"));
+    }
+
+    @Test
+    void cachedClaimsExpireAfterMaxTtl() throws InterruptedException {
+        ReflectionTestUtils.setField(jwtFilter, "claimsCacheMaxTtlSeconds", 1L);
+        jwtFilter.init();
+
+        filter.filter(request(token(60_000)), chain).block();
+        assertEquals(1, claimsCache().estimatedSize());
+
+        Thread.sleep(1_500);
+        claimsCache().cleanUp();
+
+        assertEquals(0, claimsCache().estimatedSize());
+    }
+
+    @Test
+    void rejectsTamperedTokenWithoutCaching() {
+        String token = token(60_000);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        MockServerWebExchange exchange = request(tampered);
+        filter.filter(exchange, chain).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(0, claimsCache().estimatedSize());
+    }
+
+    private String token(long validMillis) {
+        return Jwts.builder()
+                .setSubject("1")
+                .claim("auth", "ROLE_USER")
+                .claim("enabled", true)
+                .claim("emailHash", "email-hash")
+                .setExpiration(new Date(System.currentTimeMillis() + validMillis))
+                .signWith(Keys.hmacShaKeyFor(SECRET), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private MockServerWebExchange request(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, Object> claimsCache() {
+        return (Cache<String, Object>) ReflectionTestUtils.getField(jwtFilter, "claimsCache");
+    }
+}
@@ -0,0 +1,163 @@
+package com.madeby.apigateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madeBy.shared.events.SoldOutEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SoldOutFilterTest {
+
+    private SoldOutFilter soldOutFilter;
+    private GatewayFilter filter;
+    private MessageListener<SoldOutEvent> soldOutListener;
+    private final Set<Object> redisSoldOut = ConcurrentHashMap.newKeySet(); // product_sold_out set
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws InterruptedException {
+        RTopic topic = mock(RTopic.class);
+        RSet<Object> soldOutSet = mock(RSet.class);
+        when(soldOutSet.readAll()).thenAnswer(invocation -> new HashSet<>(redisSoldOut));
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(anyString())).thenReturn(topic);
+        when(redissonClient.getSet(anyString(), any())).thenReturn(soldOutSet);
+
+        soldOutFilter = new SoldOutFilter(redissonClient, new ObjectMapper());
+        ReflectionTestUtils.setField(soldOutFilter, "resyncIntervalMillis", 60_000L);
+        Object initial = ReflectionTestUtils.getField(soldOutFilter, "soldOut");
+        soldOutFilter.subscribe();
+        // 기동 직후 전체 동기화가 끝날 때까지 대기
+        long deadline = System.currentTimeMillis() + 1000;
+        while (ReflectionTestUtils.getField(soldOutFilter, "soldOut") == initial && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        filter = soldOutFilter.apply(new SoldOutFilter.Config());
+
+        ArgumentCaptor<MessageListener<SoldOutEvent>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(SoldOutEvent.class), captor.capture());
+        soldOutListener = captor.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        soldOutFilter.shutdown();
+    }
+
+    @Test
+    void passesWithoutReadingBodyWhenNothingIsSoldOut() {
+        MockServerWebExchange exchange = orderExchange("/api/orders", "{\"productInfoId\": 3, \"quantity\": 1}");
+
+        filter.filter(exchange, chain).block();
+
+        assertSame(exchange, forwarded.get());
+        assertNull(exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR));
+    }
+
+    @Test
+    void replaysBodyForOrdersOfAvailableProducts() {
+        soldOut(3L);
+        String body = "{\"productInfoId\": 4, \"quantity\": 1}";
+
+        filter.filter(orderExchange("/api/orders", body), chain).block();
+
+        assertNotNull(forwarded.get());
+        assertEquals(body, readBody(forwarded.get()));
+    }
+
+    @Test
+    void rejectsSoldOutOrder() {
+        soldOut(3L);
+        MockServerWebExchange exchange = orderExchange("/api/orders", "{\"productInfoId\": 3, \"quantity\": 1}");
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.BAD_REQUEST, exchange.getResponse().getStatusCode());
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("SOLD_OUT"));
+    }
+
+    @Test
+    void rejectsCartOrderContainingSoldOutLine() {
+        soldOut(3L);
+        MockServerWebExchange exchange = orderExchange("/api/orders/cart",
+                "[{\"productInfoId\": 4, \"quantity\": 1}, {\"productInfoId\": 3, \"quantity\": 2}]");
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.BAD_REQUEST, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void passesAfterRestock() {
+        soldOut(3L);
+        redisSoldOut.remove("3");
+        soldOutListener.onMessage("product_sold_out_topic", new SoldOutEvent(3L, false));
+        soldOut(5L); // 다른 품절 상품이 있어 본문을 검사하는 경로
+        String body = "{\"productInfoId\": 3, \"quantity\": 1}";
+
+        filter.filter(orderExchange("/api/orders", body), chain).block();
+
+        assertEquals(body, readBody(forwarded.get()));
+    }
+
+    @Test
+    void ignoresOtherPaths() {
+        soldOut(3L);
+        MockServerWebExchange exchange = orderExchange("/api/products", "{\"productInfoId\": 3}");
+
+        filter.filter(exchange, chain).block();
+
+        assertSame(exchange, forwarded.get());
+    }
+
+    // product-service처럼 품절 set에 넣고 알림 발행
+    private void soldOut(Long productInfoId) {
+        redisSoldOut.add(String.valueOf(productInfoId));
+        soldOutListener.onMessage("product_sold_out_topic", new SoldOutEvent(productInfoId, true));
+    }
+
+    private MockServerWebExchange orderExchange(String path, String body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+    }
+
+    private String readBody(ServerWebExchange exchange) {
+        return DataBufferUtils.join(exchange.getRequest().getBody())
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+    }
+}
@@ -54,6 +54,7 @@ public class OrderController {
     @PostMapping
     public ResponseEntity<Object> placeOrder(
             @RequestHeader("X-User-Id") Long userId,
+            @RequestHeader(value = "X-Admission-Token", required = false) String admissionToken,
             @RequestBody OrderRequestDto requestDto) {
 
         // 유효성 검증
@@ -61,7 +62,7 @@ public class OrderController {
             throw new MadeByException(MadeByErrorCode.MIN_AMOUNT, "주문 수량은 1개 이상이어야 합니다.");
         }
 
-        Map<String, Object> response = orderService.placeOrder(userId, requestDto.getProductInfoId(), requestDto.getQuantity());
+        Map<String, Object> response = orderService.placeOrder(userId, requestDto.getProductInfoId(), requestDto.getQuantity(), admissionToken);
 
         return ResponseEntity.ok(ApiResponse.success(response));
     }
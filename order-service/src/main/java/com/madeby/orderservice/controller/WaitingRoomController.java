@@ -0,0 +1,31 @@
+package com.madeby.orderservice.controller;
+
+import com.madeBy.shared.common.ApiResponse;
+import com.madeby.orderservice.service.WaitingRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    // 한정 상품 대기열 입장
+    @PostMapping("/{productInfoId}")
+    public ResponseEntity<Object> enter(
+            @PathVariable Long productInfoId,
+            @RequestHeader("X-User-Id") Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(waitingRoomService.enter(userId, productInfoId)));
+    }
+
+    // 대기 순서 조회 (입장하면 입장권 발급)
+    @GetMapping("/{productInfoId}")
+    public ResponseEntity<Object> getStatus(
+            @PathVariable Long productInfoId,
+            @RequestHeader("X-User-Id") Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(waitingRoomService.getStatus(userId, productInfoId)));
+    }
+}
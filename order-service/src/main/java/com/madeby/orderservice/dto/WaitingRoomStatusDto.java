@@ -0,0 +1,20 @@
+package com.madeby.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitingRoomStatusDto {
+    private Long productInfoId;
+    private boolean admitted;          // 입장 여부
+    private Long position;             // 대기 순서 (1부터)
+    private Long estimatedWaitSeconds; // 예상 대기 시간
+    private String admissionToken;     // 입장권 (주문 시 X-Admission-Token 헤더로 전달)
+}
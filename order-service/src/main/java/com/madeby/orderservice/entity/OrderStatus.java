@@ -12,7 +12,8 @@ public enum OrderStatus {
     SHIPPING("배송중"),
     DELIVERED("배송완료"),
     RETURN_REQUEST("반품신청"),
-    RETURNED("반품완료");
+    RETURNED("반품완료"),
+    REFUND_REQUIRED("환불필요"); // 결제는 완료됐지만 재고를 확보하지 못한 주문
 
     private final String message;
 }
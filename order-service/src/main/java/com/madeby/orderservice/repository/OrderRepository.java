@@ -3,10 +3,12 @@ package com.madeby.orderservice.repository;
 import com.madeby.orderservice.entity.OrderStatus;
 import com.madeby.orderservice.entity.Orders;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Orders, Long> {
@@ -59,4 +61,11 @@ public interface OrderRepository extends JpaRepository<Orders, Long> {
             @Param("size") int size
     );
 
+    @Modifying
+    @Query("UPDATE Orders o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatusByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("from") OrderStatus from,
+            @Param("to") OrderStatus to
+    );
 }
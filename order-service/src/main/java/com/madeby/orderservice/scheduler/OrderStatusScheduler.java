@@ -8,15 +8,21 @@ import com.madeby.orderservice.entity.OrderProductSnapshot;
 import com.madeby.orderservice.entity.OrderStatus;
 import com.madeby.orderservice.entity.Orders;
 import com.madeby.orderservice.repository.OrderRepository;
+import com.madeby.orderservice.service.StockDeltaPublisher;
+import com.madeby.orderservice.service.StockReservationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +31,8 @@ public class OrderStatusScheduler {
 
     private final OrderRepository orderRepository;
     private final ProductServiceClient productServiceClient;
+    private final StockReservationService stockReservationService;
+    private final StockDeltaPublisher stockDeltaPublisher;
 
     @Scheduled(cron = "0 0 0,12,18 * * *") // 매일 00:00, 08:00, 16:00에 실행
     @Transactional
@@ -164,6 +172,7 @@ public class OrderStatusScheduler {
                     batchSize
             );
 
+            Map<Long, Integer> returned = new HashMap<>();
             for (Orders order : orders) {
                 for (OrderProductSnapshot snapshot : order.getOrderProductSnapshots()) {
                     ProductInfoDto productInfo = productServiceClient.getProductInfo(snapshot.getProductInfoId());
@@ -172,20 +181,14 @@ public class OrderStatusScheduler {
                         throw new MadeByException(MadeByErrorCode.NO_PRODUCT); // 예외 발생
                     }
 
-                    // Feign Client를 통해 재고 업데이트 요청
-                    boolean updateSuccess = productServiceClient.updateStock(
-                            snapshot.getProductInfoId(),
-                            snapshot.getQuantity()
-                    );
-
-                    if (!updateSuccess) {
-                        throw new MadeByException(MadeByErrorCode.STOCK_UPDATE_FAILED); // 재고 업데이트 실패 시 예외 처리
-                    }
+                    // 반품 수량은 Redis 재고에 더하고 변경분을 발행 (재고 덮어쓰기 방지)
+                    returned.merge(snapshot.getProductInfoId(), snapshot.getQuantity(), Integer::sum);
                 }
                 order.setStatus(OrderStatus.RETURNED);
             }
 
             orderRepository.saveAll(orders);
+            restoreAfterCommit(returned);
 
             if (!orders.isEmpty()) {
                 lastCursor = orders.get(orders.size() - 1).getId();
@@ -195,4 +198,25 @@ public class OrderStatusScheduler {
 
         log.info("[RETURN_REQUEST -> RETURNED 상태 변경 및 재고 업데이트 완료]");
     }
+
+    // 반품 상태가 커밋된 뒤에 재고 복구 (롤백 후 재실행 시 중복 복구 방지)
+    private void restoreAfterCommit(Map<Long, Integer> returned) {
+        if (returned.isEmpty()) {
+            return;
+        }
+        Runnable restore = () -> returned.forEach((productInfoId, quantity) -> {
+            stockReservationService.cancelReservation(productInfoId, quantity);
+            stockDeltaPublisher.released(productInfoId, quantity);
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            restore.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                restore.run();
+            }
+        });
+    }
 }
\ No newline at end of file
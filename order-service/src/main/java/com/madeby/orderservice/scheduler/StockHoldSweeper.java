@@ -0,0 +1,71 @@
+package com.madeby.orderservice.scheduler;
+
+import com.madeBy.shared.events.OrderExpiredEvent;
+import com.madeBy.shared.util.StockHoldLedger;
+import com.madeBy.shared.util.StockHoldLedger.ReleasedHold;
+import com.madeby.orderservice.entity.OrderStatus;
+import com.madeby.orderservice.repository.OrderRepository;
+import com.madeby.orderservice.service.StockDeltaPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 만료된 재고 예약 반환
+ * 결제가 끝나지 않은 채 TTL이 지난 예약을 Lua 한 번에 batch-size 건씩 반환하고, 해당 주문을 FAILED로 변경한다.
+ * 만료된 주문은 OrderExpiredEvent로 pay-service에 알려 남아 있는 결제를 취소하게 한다.
+ * 반환과 장부 삭제가 Lua 안에서 함께 처리되므로 여러 인스턴스가 동시에 실행해도 중복 반환되지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockHoldSweeper {
+
+    private static final int MAX_ROUNDS = 10; // 한 주기에 처리할 최대 batch 수
+
+    private final StockHoldLedger stockHoldLedger;
+    private final StockDeltaPublisher stockDeltaPublisher;
+    private final OrderRepository orderRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${stock.hold.sweep-batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${stock.hold.sweep-interval-ms:1000}")
+    @Transactional
+    public void releaseExpiredHolds() {
+        Set<Long> expiredOrderIds = new LinkedHashSet<>();
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            List<ReleasedHold> released;
+            try {
+                released = stockHoldLedger.sweepExpired(batchSize);
+            } catch (Exception e) {
+                log.error("만료 예약 반환 중 오류 발생", e);
+                break;
+            }
+            if (released.isEmpty()) {
+                break;
+            }
+            for (ReleasedHold hold : released) {
+                stockDeltaPublisher.released(hold.productInfoId(), hold.quantity());
+                expiredOrderIds.add(hold.orderId());
+            }
+        }
+
+        if (!expiredOrderIds.isEmpty()) {
+            int updated = orderRepository.updateStatusByIds(expiredOrderIds, OrderStatus.ORDERED, OrderStatus.FAILED);
+            log.info("만료 예약 반환 완료: {}건 (주문 실패 처리 {}건)", expiredOrderIds.size(), updated);
+            for (Long orderId : expiredOrderIds) {
+                kafkaTemplate.send(OrderExpiredEvent.TOPIC, String.valueOf(orderId), new OrderExpiredEvent(orderId));
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.madeby.orderservice.scheduler;
+
+import com.madeby.orderservice.service.WaitingRoomService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대기열 입장 처리
+ * admit-interval-ms마다 대기 인원이 있는 상품별로 admit-per-second에 맞춘 인원을 입장시킨다.
+ * 입장 속도가 인스턴스 수와 무관하도록 여러 인스턴스 중 하나만 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WaitingRoomAdmitter {
+
+    private static final String ADMIT_LOCK_KEY = "waiting_room_admit_lock";
+
+    private final WaitingRoomService waitingRoomService;
+    private final RedissonClient redissonClient;
+
+    @Value("${waiting-room.admit-per-second:200}")
+    private int admitPerSecond;
+
+    @Value("${waiting-room.admit-interval-ms:100}")
+    private long admitIntervalMillis;
+
+    @Scheduled(fixedRateString = "${waiting-room.admit-interval-ms:100}")
+    public void admit() {
+        RLock lock = redissonClient.getLock(ADMIT_LOCK_KEY);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            int count = (int) Math.max(1, admitPerSecond * admitIntervalMillis / 1000);
+            for (Long productInfoId : waitingRoomService.getActiveRooms()) {
+                int admitted = waitingRoomService.admit(productInfoId, count);
+                if (admitted > 0) {
+                    log.debug("대기열 입장: productInfoId = {}, {}명", productInfoId, admitted);
+                }
+            }
+        } catch (Exception e) {
+            log.error("대기열 입장 처리 중 오류 발생", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
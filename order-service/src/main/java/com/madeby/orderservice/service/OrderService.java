@@ -6,6 +6,7 @@ import com.madeBy.shared.events.OrderCreatedEvent;
 import com.madeBy.shared.events.OrderStatusUpdatedEvent;
 import com.madeBy.shared.exception.MadeByErrorCode;
 import com.madeBy.shared.exception.MadeByException;
+import com.madeBy.shared.util.StockHoldLedger;
 import com.madeby.orderservice.client.CartServiceClient;
 import com.madeby.orderservice.client.ProductServiceClient;
 import com.madeby.orderservice.dto.*;
@@ -14,6 +15,7 @@ import com.madeby.orderservice.repository.OrderRepository;
 import com.madeby.orderservice.client.PayServiceClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -26,7 +28,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +43,10 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final CartServiceClient cartServiceClient;
     private final StockReservationService stockReservationService;
+    private final StockLeaseService stockLeaseService;
+    private final StockDeltaPublisher stockDeltaPublisher;
+    private final StockHoldLedger stockHoldLedger;
+    private final WaitingRoomService waitingRoomService;
     private final ProductServiceClient productServiceClient;
     private final PayServiceClient payServiceClient;
     private final RedisTemplate<String, Object> redisTemplate;
@@ -48,6 +56,9 @@ public class OrderService {
     // Redis 키를 상수로 분리
     private static final String PRODUCT_INFO_REDIS_KEY_PREFIX = "product_info:";
 
+    @Value("${stock.hold.ttl-seconds:300}")
+    private long holdTtlSeconds; // 결제가 끝나지 않은 예약 재고를 자동 반환하기까지의 시간
+
     @Transactional
     public void requestReturn(Long orderId, Long userId) {
         // 1. 주문 조회
@@ -114,98 +125,145 @@ public class OrderService {
         // 2. 유저의 장바구니 확인
         CartResponseDto cart = cartServiceClient.getCartByUserId(userId);
 
-        // 3. 주문 생성
-        Orders order = Orders.builder()
-                .userId(userId) // userId 설정
-                .status(OrderStatus.ORDERED)
-                .isReturnable(true)
-                .orderProductSnapshots(new ArrayList<>()) // 초기화
-                .build();
-        orderRepository.save(order);
-
-        // 4. 장바구니 내 주문 검증 및 총 주문 금액 계산
-        BigDecimal totalAmount = BigDecimal.ZERO; // 주문 총 금액
-        List<OrderProductSnapshot> snapshots = new ArrayList<>(); // 주문 스냅샷 리스트
-
+        // 3. 주문 수량 집계 (같은 상품이 여러 줄이면 합산)
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (OrderRequestDto orderRequest : orderRequestDtos) {
-            Long productInfoId = orderRequest.getProductInfoId();
-            int quantity = orderRequest.getQuantity();
-
-            // 4-2. 상품 정보 확인
-            ProductInfoDto productInfoDto = productServiceClient.getProductInfo(productInfoId);
-            if (productInfoDto == null) {
-                throw new MadeByException(MadeByErrorCode.NO_PRODUCT, "상품 정보를 가져올 수 없습니다: " + productInfoId);
+            if (orderRequest.getQuantity() <= 0) {
+                throw new MadeByException(MadeByErrorCode.MIN_AMOUNT);
             }
+            quantities.merge(orderRequest.getProductInfoId(), orderRequest.getQuantity(), Integer::sum);
+        }
 
-            ProductsDto productsDto = productServiceClient.getProduct(productInfoDto.getId());
-            if (productsDto == null || !productsDto.isVisible()) {
+        // 4. 상품 정보 일괄 조회 (Redis MGET 한 번, 캐시에 없는 상품만 Feign 조회)
+        Map<Long, ProductInfoDto> productInfos = getProductInfos(quantities.keySet());
+        for (ProductInfoDto productInfoDto : productInfos.values()) {
+            if (!productInfoDto.isVisible()) {
                 throw new MadeByException(MadeByErrorCode.NO_SELLING_PRODUCT, "해당 상품은 판매 중이 아닙니다: " + productInfoDto.getId());
             }
-
-            if (productInfoDto.getStock() < quantity) {
-                throw new MadeByException(MadeByErrorCode.NOT_ENOUGH_PRODUCT);
+        }
+        // 한정 상품은 대기열 입장 후 주문 가능 (주문이 만들어지지 않으면 사용한 입장권을 되돌림)
+        Map<Long, String> admissions = new LinkedHashMap<>();
+        try {
+            for (ProductInfoDto productInfoDto : productInfos.values()) {
+                if (productInfoDto.isLimited()) {
+                    admissions.put(productInfoDto.getId(), waitingRoomService.useAdmission(userId, productInfoDto.getId()));
+                }
             }
+        } catch (RuntimeException e) {
+            restoreAdmissions(userId, admissions);
+            throw e;
+        }
 
-            // 5. 품절 및 재고 확인
-            if (productInfoDto.getStock() <= 0) {
-                throw new MadeByException(MadeByErrorCode.SOLD_OUT);
-            }
+        // 5. 재고 일괄 예약 (Lua 스크립트 한 번, 하나라도 부족하면 전체 실패)
+        if (!stockReservationService.reserveAll(quantities)) {
+            restoreAdmissions(userId, admissions);
+            throw new MadeByException(MadeByErrorCode.NOT_ENOUGH_PRODUCT);
+        }
+        stockDeltaPublisher.reservedAll(quantities);
+
+        Long heldOrderId = null;
+        try {
+            // 6. 주문 생성
+            Orders order = Orders.builder()
+                    .userId(userId) // userId 설정
+                    .status(OrderStatus.ORDERED)
+                    .isReturnable(true)
+                    .orderProductSnapshots(new ArrayList<>()) // 초기화
+                    .build();
 
-            if (productInfoDto.getStock() < quantity) {
-                throw new MadeByException(MadeByErrorCode.DECREMENT_STOCK_FAILURE);
+            // 7. 주문 상품 스냅샷 생성
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                ProductInfoDto productInfoDto = productInfos.get(line.getKey());
+                int quantity = line.getValue();
+                OrderProductSnapshot snapshot = OrderProductSnapshot.builder()
+                        .orders(order)
+                        .productInfoId(productInfoDto.getId())
+                        .stock(productInfoDto.getStock()) // ProductInfoDto에서 재고 가져오기
+                        .size(productInfoDto.getSize()) // ProductsDto에서 사이즈 가져오기
+                        .color(productInfoDto.getColor()) // ProductsDto에서 색상 가져오기
+                        .quantity(quantity) // 요청된 수량
+                        .price(productInfoDto.getPrice()) // ProductInfoDto에서 가격 가져오기
+                        .totalAmount(productInfoDto.getPrice().multiply(BigDecimal.valueOf(quantity))) // 총 금액 계산
+                        .build();
+                order.getOrderProductSnapshots().add(snapshot); // 주문 객체에 스냅샷 추가
             }
 
-            // 6. 재고 감소 (동시성 처리)
-            try {
-                productServiceClient.decrementStock(productInfoId, quantity);
-            } catch (Exception e) {
-                throw new MadeByException(MadeByErrorCode.DECREMENT_STOCK_FAILURE, "재고 감소 처리 중 오류가 발생했습니다: " + productInfoId);
+            // 8. 주문 및 스냅샷 저장
+            orderRepository.save(order);
+            stockHoldLedger.record(order.getId(), quantities, Duration.ofSeconds(holdTtlSeconds));
+            heldOrderId = order.getId();
+
+            // 9. 결제 화면 진입
+            initiatePayment(order.getId(), userId);
+
+            // 10. 결제 시도 (모의 결제)
+            PaymentStatus result = payServiceClient.processPayment(order.getId(), userId);
+
+            // 11. 결제 결과 처리
+            if (result == PaymentStatus.COMPLETED) {
+                log.info("결제 성공: 주문 ID = {}", order.getId());
+                order.setStatus(confirmHold(order));
+                // 결제 성공한 경우 장바구니에서 주문 완료된 상품 제거
+                for (Long productInfoId : quantities.keySet()) {
+                    cartServiceClient.removeProductFromCart(userId, productInfoId);
+                }
+            } else {
+                // 결제 실패/이탈 시 예약 재고 반환
+                log.info("결제 실패 또는 이탈: 주문 ID = {}", order.getId());
+                order.setStatus(OrderStatus.FAILED);
+                stockDeltaPublisher.releasedAll(stockHoldLedger.release(order.getId()));
             }
 
-            // 7. 주문 상품 스냅샷 생성
-            OrderProductSnapshot snapshot = OrderProductSnapshot.builder()
-                    .orders(order)
-                    .productInfoId(productInfoDto.getId())
-                    .stock(productInfoDto.getStock()) // ProductInfoDto에서 재고 가져오기
-                    .size(productInfoDto.getSize()) // ProductsDto에서 사이즈 가져오기
-                    .color(productInfoDto.getColor()) // ProductsDto에서 색상 가져오기
-                    .quantity(quantity) // 요청된 수량
-                    .price(productInfoDto.getPrice()) // ProductInfoDto에서 가격 가져오기
-                    .totalAmount(productInfoDto.getPrice().multiply(BigDecimal.valueOf(quantity))) // 총 금액 계산
-                    .build();
-
-
-            snapshots.add(snapshot);
-
-            // 총 금액 계산
-            totalAmount = totalAmount.add(snapshot.getTotalAmount());
-        }
-
-        // 8. 주문 상품 스냅샷 저장
-        for (OrderProductSnapshot snapshot : snapshots) {
-            snapshot.setOrders(order);
-            order.getOrderProductSnapshots().add(snapshot); // 주문 객체에 스냅샷 추가
+            return order.getId();
+        } catch (RuntimeException e) {
+            // 주문 생성 도중 오류 발생 시 예약 재고/입장권 반환 (DB는 트랜잭션 롤백)
+            if (heldOrderId != null) {
+                stockDeltaPublisher.releasedAll(stockHoldLedger.release(heldOrderId));
+            } else {
+                stockReservationService.cancelAll(quantities);
+                stockDeltaPublisher.releasedAll(quantities);
+            }
+            restoreAdmissions(userId, admissions);
+            throw e;
         }
+    }
 
-        // 9. 결제 화면 진입
-        initiatePayment(order.getId(), userId);
-
-        // 5. 결제 시도 (모의 결제)
-        PaymentStatus result = payServiceClient.processPayment(order.getId(), userId);
+    private void restoreAdmissions(Long userId, Map<Long, String> admissions) {
+        admissions.forEach((productInfoId, token) -> waitingRoomService.restoreAdmission(userId, productInfoId, token));
+    }
 
-        // 6. 결제 결과 처리
-        if (result == PaymentStatus.COMPLETED) {
-            log.info("결제 성공: 주문 ID = {}", order.getId());
-            // 결제 성공한 경우 장바구니에서 주문 완료된 상품 제거
-            for (OrderRequestDto orderRequest : orderRequestDtos) {
-                cartServiceClient.removeProductFromCart(userId, orderRequest.getProductInfoId());
+    // Redis에 캐시된 상품 정보를 한 번에 조회하고, 없는 상품만 product-service에서 조회
+    private Map<Long, ProductInfoDto> getProductInfos(Collection<Long> productInfoIds) {
+        List<Long> ids = new ArrayList<>(productInfoIds);
+        List<String> keys = ids.stream()
+                .map(id -> PRODUCT_INFO_REDIS_KEY_PREFIX + id)
+                .toList();
+        List<Object> cachedValues = redisTemplate.opsForValue().multiGet(keys);
+
+        Map<Long, ProductInfoDto> productInfos = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long productInfoId = ids.get(i);
+            Object cachedValue = cachedValues == null ? null : cachedValues.get(i);
+            ProductInfoDto productInfoDto = null;
+            if (cachedValue instanceof String) {
+                try {
+                    productInfoDto = objectMapper.readValue((String) cachedValue, ProductInfoDto.class);
+                } catch (Exception e) {
+                    log.error("Redis 데이터 변환 실패: productInfoId={}", productInfoId);
+                }
+            }
+            if (productInfoDto == null) {
+                productInfoDto = productServiceClient.getProductInfo(productInfoId);
+                if (productInfoDto == null) {
+                    throw new MadeByException(MadeByErrorCode.NO_PRODUCT, "상품 정보를 가져올 수 없습니다: " + productInfoId);
+                }
             }
-        } else {
-            log.info("결제 실패 또는 이탈: 주문 ID = {}", order.getId());
+            if (productInfoDto.getId() == null) {
+                productInfoDto.setId(productInfoId);
+            }
+            productInfos.put(productInfoId, productInfoDto);
         }
-
-
-        return order.getId();
+        return productInfos;
     }
 
 
@@ -217,7 +275,7 @@ public class OrderService {
 
     // 주문 생성(단일 상품 주문)
     @Transactional
-    public Map<String, Object> placeOrder(Long userId, Long productInfoId, int quantity) {
+    public Map<String, Object> placeOrder(Long userId, Long productInfoId, int quantity, String admissionToken) {
         StringBuilder keyBuilder = new StringBuilder(PRODUCT_INFO_REDIS_KEY_PREFIX);
         keyBuilder.append(productInfoId);
         ProductInfoDto productInfoDto = null;
@@ -242,9 +300,23 @@ public class OrderService {
             throw new MadeByException(MadeByErrorCode.NO_SELLING_PRODUCT);
         }
 
-        if (!stockReservationService.reserveStock(productInfoId, quantity)) {
+        // 한정 상품은 대기열 입장권이 있어야 주문 가능 (입장권은 한 번만 사용, 주문이 만들어지지 않으면 되돌림)
+        String admission = productInfoDto.isLimited()
+                ? waitingRoomService.useAdmission(userId, productInfoId, admissionToken)
+                : null;
+
+        boolean reserved;
+        try {
+            reserved = stockLeaseService.reserveStock(productInfoId, quantity);
+        } catch (RuntimeException e) {
+            waitingRoomService.restoreAdmission(userId, productInfoId, admission);
+            throw e;
+        }
+        if (!reserved) {
+            waitingRoomService.restoreAdmission(userId, productInfoId, admission);
             throw new MadeByException(MadeByErrorCode.NOT_ENOUGH_PRODUCT);
         }
+        stockDeltaPublisher.reserved(productInfoId, quantity);
 
         Orders order = new Orders(userId, OrderStatus.ORDERED, true);
         OrderProductSnapshot snapshot = new OrderProductSnapshot(
@@ -259,7 +331,16 @@ public class OrderService {
         );
 
         order.getOrderProductSnapshots().add(snapshot);
-        orderRepository.save(order);
+        try {
+            orderRepository.save(order);
+            stockHoldLedger.record(order.getId(), Map.of(productInfoId, quantity), Duration.ofSeconds(holdTtlSeconds));
+        } catch (RuntimeException e) {
+            // 주문 저장 실패 시 예약 재고/입장권 반환
+            stockReservationService.cancelReservation(productInfoId, quantity);
+            stockDeltaPublisher.released(productInfoId, quantity);
+            waitingRoomService.restoreAdmission(userId, productInfoId, admission);
+            throw e;
+        }
 
         // 결제 시도 이벤트 발행
         OrderCreatedEvent event = new OrderCreatedEvent(
@@ -287,24 +368,52 @@ public class OrderService {
 
 
     @KafkaListener(topics = "order-status-updated-topic", groupId = "order-service")
+    @Transactional
     public void handleOrderStatusUpdated(OrderStatusUpdatedEvent event) {
         log.info("OrderStatusUpdatedEvent 수신: {}", event);
 
         Orders order = orderRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new MadeByException(MadeByErrorCode.NO_ORDER));
 
-        if ("COMPLETED".equals(event.getStatus())) {
+        OrderStatus status = OrderStatus.valueOf(event.getStatus());
+        if (status == OrderStatus.ORDERED) {
             log.info("결제 완료: 주문 ID = {}", order.getId());
-        } else if ("FAILED".equals(event.getStatus())) {
+            status = confirmHold(order);
+        } else if (status == OrderStatus.FAILED) {
             log.warn("결제 실패: 주문 ID = {}", order.getId());
-            stockReservationService.cancelReservation(event.getProductInfoId(), event.getQuantity());
+            // 장부에 남아 있는 경우에만 재고 반환 (만료 처리/결제 타임아웃과 중복 반환 방지)
+            stockDeltaPublisher.releasedAll(stockHoldLedger.release(order.getId()));
         }
-        order.setStatus(OrderStatus.valueOf(event.getStatus()));
+        order.setStatus(status);
         orderRepository.save(order);
         // 최종 상태 Redis에 저장
         String redisKey = "order_status_" + order.getUserId() + "_" + event.getProductInfoId();
-        redisTemplate.opsForValue().set(redisKey, event.getStatus(), Duration.ofMinutes(5)); // 5분 TTL
-        log.info("주문 상태 Redis에 저장: key={}, status={}", redisKey, event.getStatus());
+        redisTemplate.opsForValue().set(redisKey, status.name(), Duration.ofMinutes(5)); // 5분 TTL
+        log.info("주문 상태 Redis에 저장: key={}, status={}", redisKey, status);
+    }
+
+    // 결제 완료 : 예약 재고를 판매로 확정하고 최종 주문 상태를 반환
+    // 예약이 만료돼 재고가 이미 반환된 경우 다시 예약하고, 확보하지 못하면 재고 없이 완료 처리하지 않고 환불 대상으로 표시
+    private OrderStatus confirmHold(Orders order) {
+        if (stockHoldLedger.commit(order.getId()) != StockHoldLedger.CommitResult.EXPIRED || reserveAgain(order)) {
+            return OrderStatus.ORDERED;
+        }
+        log.error("예약 만료 후 결제 완료, 재고 재확보 실패 (환불 필요): 주문 ID = {}", order.getId());
+        return OrderStatus.REFUND_REQUIRED;
+    }
+
+    // 예약 만료로 반환된 재고를 주문 수량만큼 다시 예약 (all-or-nothing)
+    private boolean reserveAgain(Orders order) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderProductSnapshot snapshot : order.getOrderProductSnapshots()) {
+            quantities.merge(snapshot.getProductInfoId(), snapshot.getQuantity(), Integer::sum);
+        }
+        if (quantities.isEmpty() || !stockReservationService.reserveAll(quantities)) {
+            return false;
+        }
+        stockDeltaPublisher.reservedAll(quantities);
+        log.warn("예약 만료 후 결제 완료, 재고 재확보: 주문 ID = {}", order.getId());
+        return true;
     }
 
 
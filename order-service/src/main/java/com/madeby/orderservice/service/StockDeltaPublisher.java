@@ -0,0 +1,51 @@
+package com.madeby.orderservice.service;
+
+import com.madeBy.shared.events.StockDeltaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Redis 재고 예약/취소 결과를 product-service로 전달 (DB write-behind)
+ * 상품 ID를 메시지 키로 사용해 같은 상품의 변경분은 순서대로 처리되도록 한다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StockDeltaPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void reserved(Long productInfoId, int quantity) {
+        publish(productInfoId, -quantity);
+    }
+
+    public void released(Long productInfoId, int quantity) {
+        publish(productInfoId, quantity);
+    }
+
+    // 임대 토큰을 모두 사용해 임대 카운터만 줄어든 경우 : 변경분 없이 품절 여부를 다시 확인하게 한다
+    public void leaseDrained(Long productInfoId) {
+        publish(productInfoId, 0);
+    }
+
+    public void reservedAll(Map<Long, Integer> quantities) {
+        quantities.forEach(this::reserved);
+    }
+
+    public void releasedAll(Map<Long, Integer> quantities) {
+        quantities.forEach(this::released);
+    }
+
+    private void publish(Long productInfoId, int delta) {
+        try {
+            kafkaTemplate.send(StockDeltaEvent.TOPIC, String.valueOf(productInfoId), new StockDeltaEvent(productInfoId, delta));
+        } catch (Exception e) {
+            // 발행 실패가 주문 처리를 막지 않도록 로그만 남김
+            log.error("재고 변경분 발행 실패: productInfoId = {}, delta = {}", productInfoId, delta, e);
+        }
+    }
+}
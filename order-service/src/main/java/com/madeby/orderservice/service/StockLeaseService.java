@@ -0,0 +1,164 @@
+package com.madeby.orderservice.service;
+
+import com.madeBy.shared.util.StockRedisKeys;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로컬 재고 토큰 버킷
+ * Redis에서 재고를 블록 단위(예: 50개)로 임대해 와 JVM 안의 카운터에서 차감한다.
+ * 주문마다 Redis를 왕복하지 않고, 토큰이 떨어졌을 때만 Redis에서 다시 임대한다.
+ * 일정 시간 사용되지 않은 토큰과 종료 시점에 남은 토큰은 Redis로 반납한다.
+ * 전체 재고 불변식(Redis 재고 + 임대 재고 + 판매 수량 = 총 재고)은 Redis가 유지한다.
+ * 임대 카운터(product_stock_leased)는 JVM에 남아 있는 토큰만 세도록 주문으로 사용한 수량을 모아 주기적으로 차감한다.
+ * 차감 후 토큰이 남지 않았으면 product-service가 품절 여부를 다시 확인하도록 알린다. (마지막 임대 재고 판매 시 품절 반영)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockLeaseService {
+
+    private final StockReservationService stockReservationService;
+    private final StockDeltaPublisher stockDeltaPublisher;
+    private final RedissonClient redissonClient;
+
+    @Value("${stock.lease.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stock.lease.block-size:50}")
+    private int blockSize;
+
+    @Value("${stock.lease.idle-timeout-ms:3000}")
+    private long idleTimeoutMillis;
+
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * 재고 예약 : 임대 모드가 꺼져 있으면 Redis에서 바로 차감한다.
+     */
+    public boolean reserveStock(Long productInfoId, int quantity) {
+        if (!enabled) {
+            return stockReservationService.reserveStock(productInfoId, quantity);
+        }
+
+        Lease lease = leases.computeIfAbsent(productInfoId, id -> new Lease());
+        lease.touch();
+        if (lease.tryConsume(quantity)) {
+            return true;
+        }
+
+        // 로컬 토큰 부족 : 한 스레드만 Redis에서 추가 임대
+        synchronized (lease) {
+            if (lease.tryConsume(quantity)) {
+                return true;
+            }
+            int request = Math.max(blockSize, quantity - lease.tokens.get());
+            int acquired = stockReservationService.acquireUpTo(productInfoId, request);
+            if (acquired > 0) {
+                leasedCounter(productInfoId).addAndGet(acquired - lease.consumed.getAndSet(0));
+                lease.tokens.addAndGet(acquired);
+                log.debug("재고 임대: productInfoId = {}, acquired = {}", productInfoId, acquired);
+            }
+            return lease.tryConsume(quantity);
+        }
+    }
+
+    /**
+     * 사용한 수량을 임대 카운터에 반영하고, 일정 시간 사용되지 않은 임대 재고를 Redis로 반납
+     */
+    @Scheduled(fixedDelayString = "${stock.lease.sweep-interval-ms:1000}")
+    public void returnIdleLeases() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        leases.forEach((productInfoId, lease) -> {
+            if (now - lease.lastUsedAt > idleTimeoutMillis) {
+                returnLease(productInfoId, lease);
+            } else {
+                flushConsumed(productInfoId, lease);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void returnAllLeases() {
+        leases.forEach(this::returnLease);
+        log.info("종료 전 임대 재고 반납 완료: {}개 상품", leases.size());
+    }
+
+    private void returnLease(Long productInfoId, Lease lease) {
+        synchronized (lease) {
+            flushConsumed(productInfoId, lease);
+            int remaining = lease.tokens.getAndSet(0);
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                stockReservationService.cancelReservation(productInfoId, remaining);
+                leasedCounter(productInfoId).addAndGet(-remaining);
+                log.debug("임대 재고 반납: productInfoId = {}, quantity = {}", productInfoId, remaining);
+            } catch (Exception e) {
+                // 반납 실패 시 다음 주기에 다시 시도
+                lease.tokens.addAndGet(remaining);
+                log.error("임대 재고 반납 실패: productInfoId = {}, quantity = {}", productInfoId, remaining, e);
+            }
+        }
+    }
+
+    // 주문으로 사용한 수량만큼 임대 카운터 차감 (주문마다가 아닌 주기별로 모아서 반영)
+    private void flushConsumed(Long productInfoId, Lease lease) {
+        int consumed = lease.consumed.getAndSet(0);
+        if (consumed <= 0) {
+            return;
+        }
+        try {
+            leasedCounter(productInfoId).addAndGet(-consumed);
+            if (lease.tokens.get() == 0) {
+                stockDeltaPublisher.leaseDrained(productInfoId);
+            }
+        } catch (Exception e) {
+            // 반영 실패 시 다음 주기에 다시 시도
+            lease.consumed.addAndGet(consumed);
+            log.error("임대 카운터 반영 실패: productInfoId = {}, consumed = {}", productInfoId, consumed, e);
+        }
+    }
+
+    private RAtomicLong leasedCounter(Long productInfoId) {
+        return redissonClient.getAtomicLong(StockRedisKeys.leasedKey(productInfoId));
+    }
+
+    private static class Lease {
+        private final AtomicInteger tokens = new AtomicInteger();
+        private final AtomicInteger consumed = new AtomicInteger(); // 아직 임대 카운터에 반영하지 않은 사용 수량
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        private void touch() {
+            lastUsedAt = System.currentTimeMillis();
+        }
+
+        // CAS 루프로 토큰 차감 (락 없이 처리)
+        private boolean tryConsume(int quantity) {
+            while (true) {
+                int current = tokens.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - quantity)) {
+                    consumed.addAndGet(quantity);
+                    return true;
+                }
+            }
+        }
+    }
+}
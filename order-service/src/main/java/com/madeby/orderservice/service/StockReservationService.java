@@ -1,82 +1,263 @@
 package com.madeby.orderservice.service;
 
+import com.madeBy.shared.util.StockRedisKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RFuture;
-import org.redisson.api.RLock;
 import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Redis 재고 예약
+ * 샤드 개수(product_stock_shards:{id})는 매 호출마다 Lua 안에서 읽고 재고 키도 Lua 안에서 조합한다.
+ * 관리자가 샤딩을 켜거나 끄면 바로 다음 주문부터 새 키 구성으로 차감된다. (로컬 캐시 없음, 단일 Redis 서버 기준)
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class StockReservationService {
     private final RedissonClient redissonClient;
-    private static final String STOCK_KEY = "product_stock:";
 
+    // 재고 키 조회 함수 (모든 스크립트 공통) : 샤드 개수가 1 이하면 단일 키, 아니면 샤드 키 목록
+    private static final String STOCK_KEYS_FUNCTION = """
+                local function stockKeys(stockPrefix, shardPrefix, productInfoId, start)
+                    local stockKey = stockPrefix .. productInfoId
+                    local shards = tonumber(redis.call('GET', shardPrefix .. productInfoId) or '0')
+                    if shards <= 1 then
+                        return {stockKey}
+                    end
+                    local keys = {}
+                    for i = 0, shards - 1 do
+                        keys[#keys + 1] = stockKey .. ':' .. ((start + i) % shards)
+                    end
+                    return keys
+                end
+            """;
+
+    // ARGV[1] = 재고 키 prefix, ARGV[2] = 샤드 개수 키 prefix, ARGV[3] = productInfoId, ARGV[4] = 수량, ARGV[5] = 홈 샤드 난수
+    // 재고가 충분하면 차감 후 0 이상, 부족하면 -1 반환
+    // 샤딩 상품은 홈 샤드에서 차감하고, 부족하면 홈 샤드 재고를 모두 쓴 뒤 부족분을 다른 샤드에서 빌린다.
+    // 빌려 온 샤드에 남는 재고의 절반은 마른 홈 샤드로 옮긴다. 전체 재고가 부족하면 아무것도 차감하지 않는다.
+    private static final String RESERVE_SCRIPT = STOCK_KEYS_FUNCTION + """
+                local keys = stockKeys(ARGV[1], ARGV[2], ARGV[3], tonumber(ARGV[5]))
+                local quantity = tonumber(ARGV[4])
+                local stocks = {}
+                for i, key in ipairs(keys) do
+                    local current = redis.call('GET', key)
+                    if #keys == 1 and not current then
+                        return -1
+                    end
+                    stocks[i] = math.max(tonumber(current or '0'), 0)
+                end
+                if stocks[1] >= quantity then
+                    return redis.call('DECRBY', keys[1], quantity)
+                end
+
+                local total = 0
+                for i = 1, #stocks do
+                    total = total + stocks[i]
+                end
+                if total < quantity then
+                    return -1
+                end
 
+                local need = quantity - stocks[1]
+                local surplus = 0
+                for i = 2, #keys do
+                    if need <= 0 then
+                        break
+                    end
+                    if stocks[i] > 0 then
+                        local take = math.min(stocks[i], need)
+                        local extra = math.floor((stocks[i] - take) / 2)
+                        redis.call('DECRBY', keys[i], take + extra)
+                        need = need - take
+                        surplus = surplus + extra
+                    end
+                end
+                redis.call('INCRBY', keys[1], surplus - stocks[1])
+                return 0
+            """;
+
+    // ARGV[1] = 재고 키 prefix, ARGV[2] = 샤드 개수 키 prefix, ARGV[3] = 시작 샤드 난수, ARGV[4..] = productInfoId, 수량 쌍
+    // 여러 상품 일괄 예약 : 모든 상품의 재고(샤드 합계)를 먼저 확인한 뒤 전부 차감 (하나라도 부족하면 아무것도 차감하지 않음)
+    // 성공 시 0, 실패 시 부족한 상품의 순번(1부터)을 반환
+    private static final String RESERVE_ALL_SCRIPT = STOCK_KEYS_FUNCTION + """
+                local start = tonumber(ARGV[3])
+                local lines = {}
+                for i = 4, #ARGV, 2 do
+                    local keys = stockKeys(ARGV[1], ARGV[2], ARGV[i], start)
+                    local stocks = {}
+                    local total = 0
+                    for j, key in ipairs(keys) do
+                        local current = redis.call('GET', key)
+                        if #keys == 1 and not current then
+                            return (i - 2) / 2
+                        end
+                        stocks[j] = math.max(tonumber(current or '0'), 0)
+                        total = total + stocks[j]
+                    end
+                    if total < tonumber(ARGV[i + 1]) then
+                        return (i - 2) / 2
+                    end
+                    lines[#lines + 1] = {keys, stocks, tonumber(ARGV[i + 1])}
+                end
+                for _, line in ipairs(lines) do
+                    local need = line[3]
+                    for j, key in ipairs(line[1]) do
+                        if need <= 0 then
+                            break
+                        end
+                        local take = math.min(line[2][j], need)
+                        if take > 0 then
+                            redis.call('DECRBY', key, take)
+                            need = need - take
+                        end
+                    end
+                end
+                return 0
+            """;
+
+    // ARGV[1] = 재고 키 prefix, ARGV[2] = 샤드 개수 키 prefix, ARGV[3] = productInfoId, ARGV[4] = 최대 수량, ARGV[5] = 시작 샤드 난수
+    // 최대 요청 수량까지 남은 재고를 가져온다 (재고 임대용, 샤딩 상품은 여러 샤드에서 모은다)
+    private static final String TAKE_SCRIPT = STOCK_KEYS_FUNCTION + """
+                local keys = stockKeys(ARGV[1], ARGV[2], ARGV[3], tonumber(ARGV[5]))
+                local remaining = tonumber(ARGV[4])
+                local collected = 0
+                for _, key in ipairs(keys) do
+                    if remaining <= 0 then
+                        break
+                    end
+                    local current = tonumber(redis.call('GET', key) or '0')
+                    if current > 0 then
+                        local take = math.min(current, remaining)
+                        redis.call('DECRBY', key, take)
+                        remaining = remaining - take
+                        collected = collected + take
+                    end
+                end
+                return collected
+            """;
+
+    // ARGV[1] = 재고 키 prefix, ARGV[2] = 샤드 개수 키 prefix, ARGV[3] = productInfoId, ARGV[4] = 수량, ARGV[5] = 샤드 난수
+    // 재고 복구 (샤딩 상품은 임의의 샤드 하나에 복구)
+    private static final String INCREMENT_SCRIPT = STOCK_KEYS_FUNCTION + """
+                local keys = stockKeys(ARGV[1], ARGV[2], ARGV[3], tonumber(ARGV[5]))
+                redis.call('INCRBY', keys[1], tonumber(ARGV[4]))
+                return 1
+            """;
 
     /**
      * 재고 확인 및 예약
      */
     public boolean reserveStock(Long productInfoId, int quantity) {
-        return decrementStockWithLua(productInfoId, quantity);
+        Long result = evalStock(RESERVE_SCRIPT, productInfoId, quantity);
+        return result != null && result >= 0;
     }
 
-    private boolean decrementStockWithLua(Long productInfoId, int quantity) {
-        // Lua 스크립트 실행 로직
-        String stockKey = "product_stock:" + productInfoId;
-        RFuture<Long> resultFuture = redissonClient.getScript().evalAsync(
-                RScript.Mode.READ_WRITE,
-                """
-                    local stockKey = KEYS[1]
-                    local quantity = tonumber(ARGV[1])
-                    local currentStock = redis.call('GET', stockKey)
-                    if not currentStock or tonumber(currentStock) < quantity then
-                        return -1
-                    end
-                    return redis.call('DECRBY', stockKey, quantity)
-                """,
-                RScript.ReturnType.INTEGER,
-                Collections.singletonList(stockKey),
-                quantity
-        );
+    /**
+     * 장바구니 일괄 재고 예약 (all-or-nothing)
+     * 단일 키 상품과 샤딩 상품 모두 하나의 Lua 스크립트로 한 번에 확인/차감한다.
+     *
+     * @param quantities productInfoId별 주문 수량 (같은 상품은 합산되어 있어야 함)
+     */
+    public boolean reserveAll(Map<Long, Integer> quantities) {
+        List<Object> args = new ArrayList<>(quantities.size() * 2 + 3);
+        args.add(StockRedisKeys.STOCK_KEY_PREFIX);
+        args.add(StockRedisKeys.SHARD_COUNT_KEY_PREFIX);
+        args.add(String.valueOf(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE)));
+        List<Long> productInfoIds = new ArrayList<>(quantities.keySet());
+        for (Long productInfoId : productInfoIds) {
+            args.add(String.valueOf(productInfoId));
+            args.add(String.valueOf(quantities.get(productInfoId)));
+        }
 
+        Long failedIndex;
         try {
-            Long result = resultFuture.toCompletableFuture().get(1, TimeUnit.SECONDS);
-            if (result == -1) {
-                return false;
-            }
-            return true;
+            failedIndex = script().<Long>evalAsync(
+                    RScript.Mode.READ_WRITE,
+                    RESERVE_ALL_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    Collections.emptyList(),
+                    args.toArray()
+            ).toCompletableFuture().get(1, TimeUnit.SECONDS);
         } catch (Exception e) {
-            log.error("Redis Lua 스크립트 실행 중 오류 발생", e);
+            log.error("Redis 일괄 재고 예약 중 오류 발생", e);
+            return false;
+        }
+        if (failedIndex == null || failedIndex != 0) {
+            log.info("일괄 재고 예약 실패: 재고 부족 productInfoId = {}",
+                    failedIndex == null ? null : productInfoIds.get(failedIndex.intValue() - 1));
             return false;
         }
+        return true;
     }
 
     /**
-     * 재고 예약 취소 (Redis 재고 복구)
+     * 장바구니 일괄 예약 취소
      */
-    public void cancelReservation(Long productInfoId, int quantity) {
-        String redisKey = STOCK_KEY + productInfoId;
+    public void cancelAll(Map<Long, Integer> quantities) {
+        quantities.forEach(this::cancelReservation);
+    }
 
-        String luaScript = """
-            local stockKey = KEYS[1]
-            local quantity = tonumber(ARGV[1])
-            redis.call('INCRBY', stockKey, quantity)
-            return 1
-        """;
+    /**
+     * 최대 maxQuantity까지 Redis 재고를 가져온다. 실제로 가져온 수량을 반환한다.
+     * (order-service 로컬 재고 임대용, 샤딩 상품은 여러 샤드에서 모은다)
+     */
+    public int acquireUpTo(Long productInfoId, int maxQuantity) {
+        Long taken = evalStock(TAKE_SCRIPT, productInfoId, maxQuantity);
+        return taken == null || taken < 0 ? 0 : taken.intValue();
+    }
 
-        redissonClient.getScript().eval(
+    /**
+     * 재고 예약 취소 (Redis 재고 복구)
+     */
+    public void cancelReservation(Long productInfoId, int quantity) {
+        script().eval(
                 RScript.Mode.READ_WRITE,
-                luaScript,
+                INCREMENT_SCRIPT,
                 RScript.ReturnType.INTEGER,
-                Collections.singletonList(redisKey),
-                quantity
+                Collections.emptyList(),
+                stockArgs(productInfoId, quantity)
         );
     }
+
+    // 1초 안에 응답이 없거나 오류가 나면 null (예약 실패로 처리)
+    private Long evalStock(String script, Long productInfoId, int quantity) {
+        try {
+            return script().<Long>evalAsync(
+                    RScript.Mode.READ_WRITE,
+                    script,
+                    RScript.ReturnType.INTEGER,
+                    Collections.emptyList(),
+                    stockArgs(productInfoId, quantity)
+            ).toCompletableFuture().get(1, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("Redis 재고 Lua 스크립트 실행 중 오류 발생: productInfoId = {}", productInfoId, e);
+            return null;
+        }
+    }
+
+    private Object[] stockArgs(Long productInfoId, int quantity) {
+        return new Object[]{
+                StockRedisKeys.STOCK_KEY_PREFIX,
+                StockRedisKeys.SHARD_COUNT_KEY_PREFIX,
+                String.valueOf(productInfoId),
+                String.valueOf(quantity),
+                String.valueOf(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE))
+        };
+    }
+
+    // 인자를 JSON이 아닌 문자열 그대로 전달 (Lua에서 키 조합/숫자 변환)
+    private RScript script() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
 }
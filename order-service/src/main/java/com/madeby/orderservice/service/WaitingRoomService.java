@@ -0,0 +1,253 @@
+package com.madeby.orderservice.service;
+
+import com.madeBy.shared.exception.MadeByErrorCode;
+import com.madeBy.shared.exception.MadeByException;
+import com.madeby.orderservice.client.ProductServiceClient;
+import com.madeby.orderservice.dto.ProductInfoDto;
+import com.madeby.orderservice.dto.WaitingRoomStatusDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 한정 상품 주문 대기열
+ * 공개 직후 몰리는 주문 요청을 상품별 대기열(sorted set, 입장 순번을 score로 사용)에 세우고,
+ * WaitingRoomAdmitter가 주문 처리 용량에 맞춘 속도(admit-per-second)로 앞에서부터 입장시킨다.
+ * 입장한 사용자는 입장권(토큰)을 받아 admission-ttl-seconds 안에 X-Admission-Token 헤더로 한 번 주문할 수 있다.
+ * 입장권은 재고 예약 전에 사용 처리되므로, 재고 부족 등으로 주문이 만들어지지 않으면 restoreAdmission으로 되돌린다.
+ * 대기열/입장권 키는 Lua 안에서 조합한다. (단일 Redis 서버 기준)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WaitingRoomService {
+
+    private static final String QUEUE_KEY_PREFIX = "waiting_room:";             // zset : userId -> 입장 순번
+    private static final String SEQUENCE_KEY_PREFIX = "waiting_room_seq:";      // 입장 순번 발급
+    private static final String ADMITTED_KEY_PREFIX = "waiting_room_admitted:"; // {productInfoId}:{userId} -> 입장권
+    private static final String ROOMS_KEY = "waiting_rooms";                    // 대기 인원이 있는 productInfoId
+
+    // KEYS[1] = 대기열, KEYS[2] = 순번, KEYS[3] = 입장권, KEYS[4] = 대기열 목록 / ARGV[1] = userId, ARGV[2] = productInfoId
+    // 이미 입장했으면 -1, 아니면 대기열에 (없을 때만) 추가하고 앞에 있는 인원 수를 반환
+    private static final String ENTER_SCRIPT = """
+                if redis.call('EXISTS', KEYS[3]) == 1 then
+                    return -1
+                end
+                if not redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+                    redis.call('ZADD', KEYS[1], redis.call('INCR', KEYS[2]), ARGV[1])
+                    redis.call('SADD', KEYS[4], ARGV[2])
+                end
+                return redis.call('ZRANK', KEYS[1], ARGV[1])
+            """;
+
+    // KEYS[1] = 대기열, KEYS[2] = 대기열 목록 / ARGV[1] = productInfoId, ARGV[2] = 입장권 키 prefix, ARGV[3] = TTL(초), ARGV[4..] = 입장권
+    // 앞에서부터 입장권 개수만큼 꺼내 입장권을 발급하고 입장 인원 수를 반환
+    private static final String ADMIT_SCRIPT = """
+                local popped = redis.call('ZPOPMIN', KEYS[1], #ARGV - 3)
+                for i = 1, #popped, 2 do
+                    redis.call('SET', ARGV[2] .. popped[i], ARGV[3 + (i + 1) / 2], 'EX', tonumber(ARGV[3]))
+                end
+                if redis.call('ZCARD', KEYS[1]) == 0 then
+                    redis.call('SREM', KEYS[2], ARGV[1])
+                end
+                return #popped / 2
+            """;
+
+    // KEYS[1] = 입장권 / ARGV[1] = 입장권 (빈 문자열이면 입장 여부만 확인)
+    // 입장권이 맞으면 삭제하고 저장돼 있던 입장권 반환 (한 번만 사용, 주문 실패 시 되돌리는 데 사용)
+    private static final String CONSUME_SCRIPT = """
+                local stored = redis.call('GET', KEYS[1])
+                if not stored or (ARGV[1] ~= '' and stored ~= ARGV[1]) then
+                    return false
+                end
+                redis.call('DEL', KEYS[1])
+                return stored
+            """;
+
+    private final RedissonClient redissonClient;
+    private final ProductServiceClient productServiceClient;
+
+    @Value("${waiting-room.enabled:false}")
+    private boolean enabled;
+
+    @Value("${waiting-room.admit-per-second:200}")
+    private int admitPerSecond;
+
+    @Value("${waiting-room.admission-ttl-seconds:120}")
+    private long admissionTtlSeconds;
+
+    /**
+     * 대기열 입장 (이미 줄을 섰으면 현재 순서만 반환)
+     * 판매 중인 한정 상품만 대기열을 만든다. (임의의 id로 대기열/순번 키가 쌓이지 않도록)
+     */
+    public WaitingRoomStatusDto enter(Long userId, Long productInfoId) {
+        ProductInfoDto productInfo = productServiceClient.getProductInfo(productInfoId);
+        if (productInfo == null) {
+            throw new MadeByException(MadeByErrorCode.NO_PRODUCT);
+        }
+        if (!productInfo.isVisible()) {
+            throw new MadeByException(MadeByErrorCode.NO_SELLING_PRODUCT);
+        }
+        if (!productInfo.isLimited()) {
+            throw new MadeByException(MadeByErrorCode.NOT_LIMITED_PRODUCT);
+        }
+
+        Long rank = script().eval(
+                RScript.Mode.READ_WRITE,
+                ENTER_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(queueKey(productInfoId), SEQUENCE_KEY_PREFIX + productInfoId,
+                        admittedKey(productInfoId, userId), ROOMS_KEY),
+                String.valueOf(userId), String.valueOf(productInfoId)
+        );
+        if (rank != null && rank < 0) {
+            return getStatus(userId, productInfoId);
+        }
+        return waiting(productInfoId, rank == null ? 0 : rank);
+    }
+
+    /**
+     * 대기 순서 / 입장 여부 조회 (클라이언트 polling)
+     */
+    public WaitingRoomStatusDto getStatus(Long userId, Long productInfoId) {
+        String token = redissonClient.<String>getBucket(admittedKey(productInfoId, userId), StringCodec.INSTANCE).get();
+        if (token != null) {
+            return WaitingRoomStatusDto.builder()
+                    .productInfoId(productInfoId)
+                    .admitted(true)
+                    .admissionToken(token)
+                    .build();
+        }
+        Integer rank = redissonClient.getScoredSortedSet(queueKey(productInfoId), StringCodec.INSTANCE)
+                .rank(String.valueOf(userId));
+        if (rank == null) {
+            throw new MadeByException(MadeByErrorCode.NOT_IN_WAITING_ROOM);
+        }
+        return waiting(productInfoId, rank);
+    }
+
+    /**
+     * 상품 대기열에서 최대 count명 입장
+     *
+     * @return 입장한 인원 수
+     */
+    public int admit(Long productInfoId, int count) {
+        List<Object> args = new ArrayList<>(count + 3);
+        args.add(String.valueOf(productInfoId));
+        args.add(ADMITTED_KEY_PREFIX + productInfoId + ":");
+        args.add(String.valueOf(admissionTtlSeconds));
+        for (int i = 0; i < count; i++) {
+            args.add(UUID.randomUUID().toString());
+        }
+        Long admitted = script().eval(
+                RScript.Mode.READ_WRITE,
+                ADMIT_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(queueKey(productInfoId), ROOMS_KEY),
+                args.toArray()
+        );
+        return admitted == null ? 0 : admitted.intValue();
+    }
+
+    /**
+     * 대기 인원이 있는 상품 목록
+     */
+    public Set<Long> getActiveRooms() {
+        return redissonClient.<String>getSet(ROOMS_KEY, StringCodec.INSTANCE).readAll().stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 한정 상품 주문 전 입장권 확인 후 사용 처리 (단일 상품 주문)
+     *
+     * @return 사용한 입장권 (대기열을 끈 경우 null), 주문이 만들어지지 않으면 restoreAdmission으로 되돌린다
+     */
+    public String useAdmission(Long userId, Long productInfoId, String token) {
+        if (!enabled) {
+            return null;
+        }
+        String used = token == null || token.isBlank() ? null : consume(userId, productInfoId, token);
+        if (used == null) {
+            throw new MadeByException(MadeByErrorCode.NOT_ADMITTED);
+        }
+        return used;
+    }
+
+    /**
+     * 장바구니 주문 : 상품별 입장권 헤더가 없으므로 게이트웨이가 인증한 사용자의 입장 여부로 확인 후 사용 처리
+     *
+     * @return 사용한 입장권 (대기열을 끈 경우 null), 주문이 만들어지지 않으면 restoreAdmission으로 되돌린다
+     */
+    public String useAdmission(Long userId, Long productInfoId) {
+        if (!enabled) {
+            return null;
+        }
+        String used = consume(userId, productInfoId, "");
+        if (used == null) {
+            throw new MadeByException(MadeByErrorCode.NOT_ADMITTED);
+        }
+        return used;
+    }
+
+    /**
+     * 사용 처리한 입장권 되돌리기 (재고 부족/주문 저장 실패 등으로 주문이 만들어지지 않은 경우)
+     * 유효 시간은 admission-ttl-seconds로 다시 주고, 그 사이 새 입장권이 발급됐으면 덮어쓰지 않는다.
+     */
+    public void restoreAdmission(Long userId, Long productInfoId, String token) {
+        if (token == null) {
+            return;
+        }
+        try {
+            redissonClient.<String>getBucket(admittedKey(productInfoId, userId), StringCodec.INSTANCE)
+                    .trySet(token, admissionTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("입장권 복구 실패: userId = {}, productInfoId = {}", userId, productInfoId, e);
+        }
+    }
+
+    private String consume(Long userId, Long productInfoId, String token) {
+        return script().eval(
+                RScript.Mode.READ_WRITE,
+                CONSUME_SCRIPT,
+                RScript.ReturnType.VALUE,
+                List.of(admittedKey(productInfoId, userId)),
+                token
+        );
+    }
+
+    private WaitingRoomStatusDto waiting(Long productInfoId, long rank) {
+        long position = rank + 1;
+        return WaitingRoomStatusDto.builder()
+                .productInfoId(productInfoId)
+                .admitted(false)
+                .position(position)
+                .estimatedWaitSeconds(admitPerSecond <= 0 ? null : (position + admitPerSecond - 1) / admitPerSecond)
+                .build();
+    }
+
+    private String queueKey(Long productInfoId) {
+        return QUEUE_KEY_PREFIX + productInfoId;
+    }
+
+    private String admittedKey(Long productInfoId, Long userId) {
+        return ADMITTED_KEY_PREFIX + productInfoId + ":" + userId;
+    }
+
+    // 인자를 JSON이 아닌 문자열 그대로 전달 (Lua에서 키 조합/숫자 변환)
+    private RScript script() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,55 @@
+package com.madeby.orderservice.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CartReservationTest extends RedisStockTestSupport {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    private static final Long PRODUCT_A = 900011L;       // 단일 키, 재고 5
+    private static final Long PRODUCT_B = 900012L;       // 단일 키, 재고 1
+    private static final Long SHARDED_PRODUCT = 900013L; // 샤드 2개, 1개씩
+
+    @BeforeEach
+    void setUp() {
+        setStock(PRODUCT_A, 5);
+        setStock(PRODUCT_B, 1);
+        setShardedStock(SHARDED_PRODUCT, 2, 1);
+    }
+
+    @Test
+    void testReserveAllSucceeds() {
+        Assertions.assertTrue(stockReservationService.reserveAll(quantities(PRODUCT_A, 2, PRODUCT_B, 1)));
+        Assertions.assertEquals(3, stock(PRODUCT_A));
+        Assertions.assertEquals(0, stock(PRODUCT_B));
+    }
+
+    @Test
+    void testReserveAllIsAllOrNothing() {
+        // 두 번째 상품 재고 부족 : 첫 번째 상품도 차감되지 않아야 함
+        Assertions.assertFalse(stockReservationService.reserveAll(quantities(PRODUCT_A, 2, PRODUCT_B, 3)));
+        Assertions.assertEquals(5, stock(PRODUCT_A), "일부 상품만 예약되면 안 됩니다.");
+        Assertions.assertEquals(1, stock(PRODUCT_B));
+    }
+
+    @Test
+    void testShardedLineFailureRestoresEarlierLines() {
+        // 샤딩 상품이 부족하면 앞서 예약한 단일 키 상품 재고를 되돌려야 함
+        Assertions.assertFalse(stockReservationService.reserveAll(quantities(PRODUCT_A, 2, SHARDED_PRODUCT, 3)));
+        Assertions.assertEquals(5, stock(PRODUCT_A), "일부 상품만 예약되면 안 됩니다.");
+    }
+
+    private Map<Long, Integer> quantities(Long first, int firstQuantity, Long second, int secondQuantity) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(first, firstQuantity);
+        quantities.put(second, secondQuantity);
+        return quantities;
+    }
+}
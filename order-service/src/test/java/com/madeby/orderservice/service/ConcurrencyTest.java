@@ -46,7 +46,7 @@ public class ConcurrencyTest {
         // A 사용자의 주문 요청
         executorService.submit(() -> {
             try {
-                orderService.placeOrder(1L, requestA.getProductInfoId(), requestA.getQuantity());
+                orderService.placeOrder(1L, requestA.getProductInfoId(), requestA.getQuantity(), null);
                 results[0] = true;
             } catch (Exception e) {
                 results[0] = false;
@@ -58,7 +58,7 @@ public class ConcurrencyTest {
         // B 사용자의 주문 요청
         executorService.submit(() -> {
             try {
-                orderService.placeOrder(2L, requestB.getProductInfoId(), requestB.getQuantity());
+                orderService.placeOrder(2L, requestB.getProductInfoId(), requestB.getQuantity(), null);
                 results[1] = true;
             } catch (Exception e) {
                 results[1] = false;
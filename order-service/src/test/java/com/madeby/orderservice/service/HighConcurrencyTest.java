@@ -56,7 +56,7 @@ public class HighConcurrencyTest {
             executorService.submit(() -> {
                 try {
                     Thread.sleep((long) (Math.random() * 100)); // 0~100ms 간격
-                    orderService.placeOrder((long) userId, PRODUCT_INFO_ID, 1); // 각 사용자 1개씩 주문
+                    orderService.placeOrder((long) userId, PRODUCT_INFO_ID, 1, null); // 각 사용자 1개씩 주문
                     results[userId - 1] = true;
                 } catch (Exception e) {
                     results[userId - 1] = false;
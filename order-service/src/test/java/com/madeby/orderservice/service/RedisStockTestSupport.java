@@ -0,0 +1,49 @@
+package com.madeby.orderservice.service;
+
+import com.madeBy.shared.util.StockRedisKeys;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Redis 재고 테스트 공통 설정
+ * 실제 Redis에 테스트 전용 productInfoId(900000번대)의 재고 키를 구성하고 확인한다.
+ * 스케줄러는 끄므로(scheduling.enabled=false) 임대 반납/만료 예약 반환/대기열 입장은 테스트에서 직접 호출한다.
+ * 테스트별 설정은 @TestPropertySource로 추가한다. (상위 설정과 합쳐짐)
+ */
+@SpringBootTest
+@TestPropertySource(properties = "scheduling.enabled=false")
+public abstract class RedisStockTestSupport {
+
+    @Autowired
+    protected RedissonClient redissonClient;
+
+    // 단일 키 재고 설정 (샤딩 해제)
+    protected void setStock(Long productInfoId, int stock) {
+        redissonClient.getBucket(StockRedisKeys.shardCountKey(productInfoId)).delete();
+        redissonClient.getBucket(StockRedisKeys.stockKey(productInfoId)).set(stock);
+    }
+
+    // 샤드마다 같은 수량으로 재고 설정
+    protected void setShardedStock(Long productInfoId, int shards, int stockPerShard) {
+        redissonClient.getBucket(StockRedisKeys.stockKey(productInfoId)).delete();
+        redissonClient.getBucket(StockRedisKeys.shardCountKey(productInfoId)).set(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            redissonClient.getBucket(StockRedisKeys.shardKey(productInfoId, shard)).set(stockPerShard);
+        }
+    }
+
+    protected int stock(Long productInfoId) {
+        return intValue(StockRedisKeys.stockKey(productInfoId));
+    }
+
+    protected int shardStock(Long productInfoId, int shard) {
+        return intValue(StockRedisKeys.shardKey(productInfoId, shard));
+    }
+
+    private int intValue(String key) {
+        Integer value = redissonClient.<Integer>getBucket(key).get();
+        return value == null ? 0 : value;
+    }
+}
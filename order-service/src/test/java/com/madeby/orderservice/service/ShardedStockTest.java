@@ -0,0 +1,54 @@
+package com.madeby.orderservice.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class ShardedStockTest extends RedisStockTestSupport {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    private static final Long PRODUCT_INFO_ID = 900001L;
+    private static final int SHARDS = 2;
+
+    @BeforeEach
+    void setUp() {
+        // 샤드 2개에 3개씩 (전체 6개)
+        setShardedStock(PRODUCT_INFO_ID, SHARDS, 3);
+    }
+
+    @Test
+    void testBorrowIncludesHomeShardStock() {
+        // 어느 샤드도 혼자 5개를 채울 수 없지만 홈 샤드 재고를 포함하면 주문 가능
+        Assertions.assertTrue(stockReservationService.reserveStock(PRODUCT_INFO_ID, 5), "전체 재고로 채울 수 있는 주문은 성공해야 합니다.");
+        Assertions.assertEquals(1, totalStock(), "주문 수량만큼만 차감되어야 합니다.");
+    }
+
+    @Test
+    void testBorrowFailureRestoresAllShards() {
+        Assertions.assertFalse(stockReservationService.reserveStock(PRODUCT_INFO_ID, 7), "전체 재고보다 많은 주문은 실패해야 합니다.");
+        for (int shard = 0; shard < SHARDS; shard++) {
+            Assertions.assertEquals(3, shardStock(PRODUCT_INFO_ID, shard), "실패하면 홈 샤드를 포함해 가져온 재고가 모두 원복되어야 합니다.");
+        }
+    }
+
+    @Test
+    void testUnshardTakesEffectOnNextReservation() {
+        // 샤딩을 끄면(샤드 개수 키 삭제) 바로 다음 예약부터 단일 키에서 차감
+        setStock(PRODUCT_INFO_ID, 4);
+
+        Assertions.assertTrue(stockReservationService.reserveStock(PRODUCT_INFO_ID, 4), "단일 키 재고로 예약되어야 합니다.");
+        Assertions.assertEquals(0, stock(PRODUCT_INFO_ID));
+        Assertions.assertEquals(6, totalStock(), "이전 샤드 키는 사용하지 않아야 합니다.");
+    }
+
+    private int totalStock() {
+        int total = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            total += shardStock(PRODUCT_INFO_ID, shard);
+        }
+        return total;
+    }
+}
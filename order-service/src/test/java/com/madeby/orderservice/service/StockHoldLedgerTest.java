@@ -0,0 +1,58 @@
+package com.madeby.orderservice.service;
+
+import com.madeBy.shared.util.StockHoldLedger;
+import com.madeBy.shared.util.StockRedisKeys;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.Map;
+
+public class StockHoldLedgerTest extends RedisStockTestSupport {
+
+    @Autowired
+    private StockHoldLedger stockHoldLedger;
+
+    private static final Long PRODUCT_INFO_ID = 900021L;
+    private static final Long ORDER_ID = 900021L;
+
+    @BeforeEach
+    void setUp() {
+        // 재고 8개는 이미 예약(차감)된 상태에서 장부 기록을 시작
+        setStock(PRODUCT_INFO_ID, 8);
+        redissonClient.getBucket(StockRedisKeys.holdKey(ORDER_ID)).delete();
+        redissonClient.getBucket(StockRedisKeys.expiredHoldKey(ORDER_ID)).delete();
+    }
+
+    @Test
+    void testCommitBeforeExpiry() {
+        stockHoldLedger.record(ORDER_ID, Map.of(PRODUCT_INFO_ID, 2), Duration.ofMinutes(10));
+
+        Assertions.assertEquals(StockHoldLedger.CommitResult.COMMITTED, stockHoldLedger.commit(ORDER_ID));
+        Assertions.assertEquals(StockHoldLedger.CommitResult.NOT_FOUND, stockHoldLedger.commit(ORDER_ID), "확정은 한 번만 되어야 합니다.");
+        Assertions.assertEquals(8, stock(PRODUCT_INFO_ID), "확정된 예약 재고는 복구되면 안 됩니다.");
+    }
+
+    @Test
+    void testCommitAfterExpiry() {
+        stockHoldLedger.record(ORDER_ID, Map.of(PRODUCT_INFO_ID, 2), Duration.ZERO);
+
+        Assertions.assertEquals(1, stockHoldLedger.sweepExpired(100).size());
+        Assertions.assertEquals(10, stock(PRODUCT_INFO_ID), "만료된 예약 재고는 복구되어야 합니다.");
+
+        Assertions.assertEquals(StockHoldLedger.CommitResult.EXPIRED, stockHoldLedger.commit(ORDER_ID),
+                "만료 후 도착한 결제 완료는 재고를 다시 확보해야 하는 주문으로 구분되어야 합니다.");
+        Assertions.assertEquals(StockHoldLedger.CommitResult.NOT_FOUND, stockHoldLedger.commit(ORDER_ID));
+    }
+
+    @Test
+    void testReleaseAfterCommitDoesNotRestore() {
+        stockHoldLedger.record(ORDER_ID, Map.of(PRODUCT_INFO_ID, 2), Duration.ofMinutes(10));
+        stockHoldLedger.commit(ORDER_ID);
+
+        Assertions.assertTrue(stockHoldLedger.release(ORDER_ID).isEmpty());
+        Assertions.assertEquals(8, stock(PRODUCT_INFO_ID));
+    }
+}
@@ -0,0 +1,54 @@
+package com.madeby.orderservice.service;
+
+import com.madeBy.shared.util.StockRedisKeys;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "stock.lease.enabled=true",
+        "stock.lease.block-size=10",
+        "stock.lease.idle-timeout-ms=600000"
+})
+public class StockLeaseTest extends RedisStockTestSupport {
+
+    @Autowired
+    private StockLeaseService stockLeaseService;
+
+    private static final Long PRODUCT_INFO_ID = 900002L;
+
+    @BeforeEach
+    void setUp() {
+        // 임대 재고를 먼저 반납한 뒤 Redis 초기화 (100개 재고 설정)
+        stockLeaseService.returnAllLeases();
+        redissonClient.getAtomicLong(StockRedisKeys.leasedKey(PRODUCT_INFO_ID)).set(0);
+        setStock(PRODUCT_INFO_ID, 100);
+    }
+
+    @Test
+    void testLeasedCounterTracksUnconsumedTokens() {
+        Assertions.assertTrue(stockLeaseService.reserveStock(PRODUCT_INFO_ID, 3));
+        Assertions.assertTrue(stockLeaseService.reserveStock(PRODUCT_INFO_ID, 2));
+        Assertions.assertEquals(90, stock(PRODUCT_INFO_ID), "블록 크기만큼 Redis에서 임대해야 합니다.");
+
+        // 주기 반영 후 임대 카운터에는 아직 사용하지 않은 토큰만 남아야 함 (Redis 재고 + 임대 = 전체 - 판매)
+        stockLeaseService.returnIdleLeases();
+        Assertions.assertEquals(5, leased(), "사용한 수량만큼 임대 카운터가 차감되어야 합니다.");
+        Assertions.assertEquals(95, stock(PRODUCT_INFO_ID) + leased());
+    }
+
+    @Test
+    void testReturnLeaseClearsLeasedCounter() {
+        Assertions.assertTrue(stockLeaseService.reserveStock(PRODUCT_INFO_ID, 4));
+
+        stockLeaseService.returnAllLeases();
+        Assertions.assertEquals(96, stock(PRODUCT_INFO_ID), "사용하지 않은 토큰은 Redis로 반납되어야 합니다.");
+        Assertions.assertEquals(0, leased(), "반납 후 임대 카운터는 0이어야 합니다.");
+    }
+
+    private long leased() {
+        return redissonClient.getAtomicLong(StockRedisKeys.leasedKey(PRODUCT_INFO_ID)).get();
+    }
+}
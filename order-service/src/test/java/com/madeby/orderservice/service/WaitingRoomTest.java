@@ -0,0 +1,64 @@
+package com.madeby.orderservice.service;
+
+import com.madeBy.shared.exception.MadeByException;
+import com.madeby.orderservice.dto.WaitingRoomStatusDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "waiting-room.enabled=true")
+public class WaitingRoomTest extends RedisStockTestSupport {
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    private static final Long PRODUCT_INFO_ID = 900031L;
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        // 대기열에 바로 세운 뒤 입장 (enter는 product-service 조회가 필요하므로 대기열 키를 직접 구성)
+        redissonClient.getBucket("waiting_room_admitted:" + PRODUCT_INFO_ID + ":" + USER_ID).delete();
+        redissonClient.getScoredSortedSet("waiting_room:" + PRODUCT_INFO_ID, StringCodec.INSTANCE)
+                .add(1, String.valueOf(USER_ID));
+        Assertions.assertEquals(1, waitingRoomService.admit(PRODUCT_INFO_ID, 1));
+    }
+
+    @Test
+    void testAdmissionIsSingleUse() {
+        String token = admissionToken();
+
+        Assertions.assertEquals(token, waitingRoomService.useAdmission(USER_ID, PRODUCT_INFO_ID, token));
+        Assertions.assertThrows(MadeByException.class,
+                () -> waitingRoomService.useAdmission(USER_ID, PRODUCT_INFO_ID, token), "입장권은 한 번만 사용할 수 있어야 합니다.");
+    }
+
+    @Test
+    void testWrongTokenIsRejected() {
+        String token = admissionToken();
+
+        Assertions.assertThrows(MadeByException.class,
+                () -> waitingRoomService.useAdmission(USER_ID, PRODUCT_INFO_ID, "wrong-token"));
+        Assertions.assertEquals(token, waitingRoomService.useAdmission(USER_ID, PRODUCT_INFO_ID, token), "잘못된 입장권은 기존 입장권을 사용 처리하면 안 됩니다.");
+    }
+
+    @Test
+    void testRestoredAdmissionCanBeUsedAgain() {
+        // 재고 부족 등으로 주문이 만들어지지 않으면 입장권을 되돌려 다시 주문할 수 있어야 함
+        String token = admissionToken();
+        String used = waitingRoomService.useAdmission(USER_ID, PRODUCT_INFO_ID, token);
+        waitingRoomService.restoreAdmission(USER_ID, PRODUCT_INFO_ID, used);
+
+        Assertions.assertEquals(token, admissionToken());
+        Assertions.assertEquals(token, waitingRoomService.useAdmission(USER_ID, PRODUCT_INFO_ID), "장바구니 주문도 되돌린 입장권을 사용할 수 있어야 합니다.");
+    }
+
+    private String admissionToken() {
+        WaitingRoomStatusDto status = waitingRoomService.getStatus(USER_ID, PRODUCT_INFO_ID);
+        Assertions.assertTrue(status.isAdmitted());
+        return status.getAdmissionToken();
+    }
+}
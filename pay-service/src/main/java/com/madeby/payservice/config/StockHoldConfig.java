@@ -0,0 +1,16 @@
+package com.madeby.payservice.config;
+
+import com.madeBy.shared.util.StockHoldLedger;
+import org.redisson.api.RedissonClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StockHoldConfig {
+
+    // 재고 예약 장부 (shared 모듈의 일반 클래스이므로 사용하는 서비스에서만 등록)
+    @Bean
+    public StockHoldLedger stockHoldLedger(RedissonClient redissonClient) {
+        return new StockHoldLedger(redissonClient);
+    }
+}
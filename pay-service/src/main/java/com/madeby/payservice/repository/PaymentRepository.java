@@ -3,7 +3,10 @@ package com.madeby.payservice.repository;
 
 import com.madeby.payservice.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,4 +20,18 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findTimedOutPayments(LocalDateTime timeoutTime);
 
     Optional<Payment> findByOrderId(Long orderId);
+
+    // 결제 중인 결제만 완료 처리 (예약 만료로 먼저 취소된 결제는 완료하지 않음, Kafka 경로는 트랜잭션 밖에서 호출됨)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = 'COMPLETED', p.completedAt = :completedAt " +
+            "WHERE p.orderId = :orderId AND p.status = 'PROCESSING'")
+    int completeIfProcessing(@Param("orderId") Long orderId, @Param("completedAt") LocalDateTime completedAt);
+
+    // 예약이 만료된 주문의 결제 취소 ('결제시도' 또는 '결제중'인 경우만)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = 'CANCELED' " +
+            "WHERE p.orderId = :orderId AND (p.status = 'PENDING' OR p.status = 'PROCESSING')")
+    int cancelIfNotCompleted(@Param("orderId") Long orderId);
 }
@@ -1,24 +1,20 @@
 package com.madeby.payservice.scheduler;
 
 import com.madeBy.shared.entity.PaymentStatus;
-import com.madeby.payservice.client.OrderServiceClient;
-import com.madeby.payservice.client.ProductServiceClient;
-import com.madeby.payservice.dto.OrderProductSnapshotDto;
-import com.madeby.payservice.dto.OrderRequestDto;
-import com.madeby.payservice.dto.OrderResponseDto;
+import com.madeBy.shared.events.StockDeltaEvent;
+import com.madeBy.shared.util.StockHoldLedger;
 import com.madeby.payservice.entity.Payment;
 import com.madeby.payservice.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RScript;
-import org.redisson.api.RedissonClient;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -26,9 +22,8 @@ import java.util.List;
 public class PaymentTimeoutScheduler {
 
     private final PaymentRepository paymentRepository;
-    private final ProductServiceClient productServiceClient;
-    private final OrderServiceClient orderServiceClient;
-    private final RedissonClient redissonClient;
+    private final StockHoldLedger stockHoldLedger;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
 
     @Scheduled(fixedRate = 300000) // 5분마다 실행
     public void checkPaymentTimeouts() {
@@ -52,29 +47,17 @@ public class PaymentTimeoutScheduler {
         payment.setStatus(PaymentStatus.CANCELED);
         paymentRepository.save(payment);
 
-        // 2. 관련 주문 조회
-        OrderResponseDto order = orderServiceClient.getOrderDetails(payment.getOrderId());
-
-        // 3. 주문 상품 스냅샷을 기반으로 재고 복구
-        for (OrderProductSnapshotDto snapshot : order.getProducts()) {
-            Long productInfoId = snapshot.getProductInfoId();
-            int quantity = snapshot.getQuantity();
-
-            // DB 재고 복구
-            productServiceClient.updateStock(productInfoId, quantity);
-
-            // Redis 재고 복구
-            String redisKey = "product_stock:" + productInfoId;
-            redissonClient.getScript().eval(
-                    RScript.Mode.READ_WRITE,
-                    "redis.call('INCRBY', KEYS[1], ARGV[1])",
-                    RScript.ReturnType.STATUS,
-                    Collections.singletonList(redisKey),
-                    quantity
-            );
+        // 2. 예약 장부에 남아 있는 재고 복구 (만료 처리나 결제 실패 이벤트로 이미 반환된 주문은 건너뜀)
+        Map<Long, Integer> released = stockHoldLedger.release(payment.getOrderId());
+        if (released.isEmpty()) {
+            log.info("이미 반환된 예약 - Order ID: {}", payment.getOrderId());
+        }
 
+        // 3. DB 재고 복구 : product-service가 변경분을 모아 일괄 반영
+        released.forEach((productInfoId, quantity) -> {
+            kafkaTemplate.send(StockDeltaEvent.TOPIC, String.valueOf(productInfoId), new StockDeltaEvent(productInfoId, quantity));
             log.info("재고 복구 완료 - ProductInfo ID: {}, 복구 수량: {}", productInfoId, quantity);
-        }
+        });
 
         log.info("결제 실패 처리 완료 - Payment ID: {}, Order ID: {}", payment.getId(), payment.getOrderId());
     }
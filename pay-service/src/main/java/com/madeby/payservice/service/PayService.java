@@ -2,6 +2,7 @@ package com.madeby.payservice.service;
 
 import com.madeBy.shared.entity.PaymentStatus;
 import com.madeBy.shared.events.OrderCreatedEvent;
+import com.madeBy.shared.events.OrderExpiredEvent;
 import com.madeBy.shared.events.OrderStatusUpdatedEvent;
 import com.madeBy.shared.exception.MadeByErrorCode;
 import com.madeBy.shared.exception.MadeByException;
@@ -68,6 +69,10 @@ public class PayService {
         // 1. 결제 데이터 조회
         Payment payment = paymentRepository.findByOrderId(orderId)
                 .orElseThrow(() -> new MadeByException(MadeByErrorCode.NO_PAYMENT));
+        if (payment.getStatus() == PaymentStatus.CANCELED) {
+            log.info("예약 만료로 취소된 결제: orderId={}", orderId);
+            return PaymentStatus.CANCELED;
+        }
 
         //2. 고객 이탈율 시뮬레이션 (20% 확률로 결제 시도 중단)
         if (Math.random() < 0.2) {
@@ -85,13 +90,24 @@ public class PayService {
             return PaymentStatus.FAILED;
         }
 
-        // 5. 결제 성공
-        payment.setStatus(PaymentStatus.COMPLETED);
-        payment.setCompletedAt(LocalDateTime.now());
-        paymentRepository.save(payment);
+        // 5. 결제 성공 (그 사이 예약 만료로 취소됐으면 완료하지 않음)
+        if (paymentRepository.completeIfProcessing(orderId, LocalDateTime.now()) == 0) {
+            log.info("예약 만료로 취소된 결제: orderId={}", orderId);
+            return PaymentStatus.CANCELED;
+        }
         return PaymentStatus.COMPLETED;
     }
 
+    /**
+     * 재고 예약이 만료된 주문 : 아직 끝나지 않은 결제를 취소해 이후 결제가 완료되지 않도록 한다.
+     */
+    @KafkaListener(topics = OrderExpiredEvent.TOPIC, groupId = "pay-service")
+    @Transactional
+    public void handleOrderExpired(OrderExpiredEvent event) {
+        int canceled = paymentRepository.cancelIfNotCompleted(event.getOrderId());
+        log.info("예약 만료 주문 결제 취소: orderId={}, canceled={}", event.getOrderId(), canceled);
+    }
+
 
     @Transactional
     public void initiatePayment(Long orderId, Long userId) {
@@ -0,0 +1,17 @@
+package com.madeby.productservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 로컬 캐시(L1) 무효화 메시지 (Redis pub/sub)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+    private String origin;    // 보낸 인스턴스 (자신이 보낸 메시지는 무시)
+    private String cacheName;
+    private String key;      // null이면 캐시 전체 비우기
+}
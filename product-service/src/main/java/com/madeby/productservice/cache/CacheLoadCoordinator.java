@@ -0,0 +1,125 @@
+package com.madeby.productservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 캐시 로딩 조율 (인스턴스 간)
+ * - 단일 로딩 : L2에도 없는 키는 Redis 락을 잡은 인스턴스 하나만 원본(MySQL/Elasticsearch)을 조회하고,
+ *   나머지는 락을 기다렸다가 L2에 채워진 값을 사용한다. (인스턴스 안의 동시 요청은 LayeredCache가 키별 CompletableFuture로 하나로 묶는다)
+ * - 미리 갱신 : TTL의 일정 비율(refresh-ahead-ratio)이 지난 항목이 조회되면 기존 값을 바로 반환하고
+ *   백그라운드에서 다시 로딩한다. 조회되는 항목만 갱신되므로 자주 쓰이는 키는 만료로 비는 일이 없다.
+ */
+@Slf4j
+public class CacheLoadCoordinator {
+
+    private static final String LOCK_KEY_PREFIX = "product_cache_load_lock:";
+
+    private final RedissonClient redissonClient;
+    private final Duration lockWait;
+    private final Duration lockLease;
+    private final double refreshAheadRatio;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public CacheLoadCoordinator(RedissonClient redissonClient, Duration lockWait, Duration lockLease,
+                                double refreshAheadRatio, int refreshThreads) {
+        this.redissonClient = redissonClient;
+        this.lockWait = lockWait;
+        this.lockLease = lockLease;
+        this.refreshAheadRatio = refreshAheadRatio;
+        AtomicInteger sequence = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), r -> {
+            Thread thread = new Thread(r, "product-cache-refresh-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 인스턴스 간 단일 로딩
+     * 락을 얻으면(또는 대기 시간을 넘기면) L2를 다시 확인하고, 그래도 없을 때만 loader를 실행한다.
+     * loader는 락을 쥔 채로 L2에 값을 저장해야 대기 중인 인스턴스가 그 값을 읽을 수 있다.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T loadOnce(String lockKey, Supplier<Cache.ValueWrapper> sharedLookup, Callable<T> loader) throws Exception {
+        RLock lock = redissonClient.getLock(LOCK_KEY_PREFIX + lockKey);
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(lockWait.toMillis(), lockLease.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("캐시 로딩 락 획득 실패, 직접 조회: key = {}", lockKey, e); // Redis 장애 시 원본 조회
+        }
+        try {
+            Cache.ValueWrapper value = sharedLookup.get();
+            if (value != null) {
+                return (T) value.get();
+            }
+            return loader.call();
+        } finally {
+            if (locked) {
+                unlockQuietly(lock);
+            }
+        }
+    }
+
+    boolean shouldRefresh(Duration age, Duration ttl) {
+        return age.toMillis() >= ttl.toMillis() * refreshAheadRatio;
+    }
+
+    /**
+     * 백그라운드 갱신 (같은 키는 한 번에 하나, 다른 인스턴스가 갱신 중이면 onSkipped 실행)
+     */
+    void refreshAsync(String lockKey, Runnable refresh, Runnable onSkipped) {
+        if (!refreshing.add(lockKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                RLock lock = redissonClient.getLock(LOCK_KEY_PREFIX + lockKey);
+                boolean locked = false;
+                try {
+                    locked = lock.tryLock(0, lockLease.toMillis(), TimeUnit.MILLISECONDS);
+                    if (locked) {
+                        refresh.run();
+                    } else {
+                        onSkipped.run();
+                    }
+                } catch (Exception e) {
+                    log.warn("캐시 미리 갱신 실패: key = {}", lockKey, e);
+                } finally {
+                    if (locked) {
+                        unlockQuietly(lock);
+                    }
+                    refreshing.remove(lockKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(lockKey); // 대기열이 가득 차면 이번 갱신은 생략 (기존 값은 TTL까지 유효)
+        }
+    }
+
+    private void unlockQuietly(RLock lock) {
+        try {
+            lock.unlock();
+        } catch (Exception e) {
+            log.warn("캐시 로딩 락 해제 실패: {}", lock.getName(), e); // lease 만료 후 자동 해제
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.madeby.productservice.cache;
+
+/**
+ * LayeredCache가 L2에 값을 저장하기 직전에 호출 (캐시 키 역인덱스 등록용, 예외를 던지면 저장하지 않음)
+ */
+@FunctionalInterface
+public interface CacheStoreListener {
+    void onStore(String cacheName, String key, Object value);
+}
@@ -0,0 +1,286 @@
+package com.madeby.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 2단계 캐시
+ * - L1 : 인스턴스 로컬 Caffeine (가장 빠름, 인스턴스마다 따로 가진다)
+ * - L2 : Redis (모든 인스턴스가 공유, 다른 인스턴스가 채운 값을 그대로 사용)
+ * 조회는 L1 → L2 → 원본 순서로 하고, L2에서 찾은 값은 L1에도 채운다.
+ * 변경(put/evict/clear)은 L2에 반영한 뒤 다른 인스턴스에 L1 무효화 메시지를 보낸다.
+ * L2에 저장할 값은 저장 전에 storeListener(ProductCacheIndex)에 알려 상품 단위로 삭제할 수 있게 한다.
+ * 로딩은 인스턴스 안에서는 키별 CompletableFuture가, 인스턴스 간에는 CacheLoadCoordinator가 키마다 하나로 묶는다.
+ * (Caffeine compute 안에서 Redis 락 대기/원본 조회를 하면 같은 해시 버킷의 다른 키까지 막히므로 compute를 쓰지 않는다)
+ * Redis 장애 시에는 L1과 원본만으로 동작한다.
+ */
+@Slf4j
+public class LayeredCache implements Cache {
+
+    private final CaffeineCache local;
+    private final Cache shared;
+    private final BiConsumer<String, String> invalidationPublisher; // (cacheName, key)
+    private final CacheStoreListener storeListener;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>(); // 로딩 중인 키
+
+    public LayeredCache(CaffeineCache local, Cache shared, BiConsumer<String, String> invalidationPublisher,
+                        CacheStoreListener storeListener, CacheLoadCoordinator loadCoordinator) {
+        this.local = local;
+        this.shared = shared;
+        this.invalidationPublisher = invalidationPublisher;
+        this.storeListener = storeListener;
+        this.loadCoordinator = loadCoordinator;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    // 캐시 내용 확인 API(getAllCacheContents)는 로컬 캐시 기준으로 보여준다
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String cacheKey = toKey(key);
+        ValueWrapper value = local.get(cacheKey);
+        if (value != null) {
+            return value;
+        }
+        value = getShared(cacheKey);
+        if (value != null) {
+            local.put(cacheKey, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null || value.get() == null) {
+            return null;
+        }
+        if (type != null && !type.isInstance(value.get())) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value.get());
+        }
+        return (T) value.get();
+    }
+
+    // @Cacheable(sync = true) : 키마다 하나의 요청만 L2/원본을 조회한다
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = toKey(key);
+        ValueWrapper cached = local.get(cacheKey);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        return loadCoalesced(cacheKey, valueLoader, Objects::nonNull);
+    }
+
+    /**
+     * 단일 로딩 + 미리 갱신 조회
+     * storable을 만족하지 않는 결과(빈 결과 등)는 캐시하지 않고 그대로 반환한다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Supplier<T> loader, Predicate<T> storable) {
+        String cacheKey = toKey(key);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = local.getNativeCache();
+
+        Object cached = nativeCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            refreshIfAged(cacheKey, loader, storable);
+            return (T) fromStoreValue(cached);
+        }
+
+        return loadCoalesced(cacheKey, loader::get, loaded -> loaded != null && storable.test(loaded));
+    }
+
+    // 같은 키의 동시 요청은 하나만 로딩하고 나머지는 그 결과(캐시 대상이 아닌 결과 포함)를 기다린다
+    @SuppressWarnings("unchecked")
+    private <T> T loadCoalesced(String cacheKey, Callable<T> loader, Predicate<T> storable) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(cacheKey, future);
+        if (running != null) {
+            return (T) await(running);
+        }
+        try {
+            // 직전에 끝난 로딩이 L1을 채웠을 수 있으므로 한 번 더 확인
+            ValueWrapper cached = local.get(cacheKey);
+            T loaded;
+            if (cached != null) {
+                loaded = (T) cached.get();
+            } else {
+                loaded = loadShared(cacheKey, loader, storable);
+                if (storable.test(loaded)) {
+                    local.put(cacheKey, loaded);
+                }
+            }
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = toKey(key);
+        putShared(cacheKey, value);
+        local.put(cacheKey, value);
+        publish(cacheKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = toKey(key);
+        try {
+            shared.evict(cacheKey);
+        } catch (Exception e) {
+            log.warn("Redis 캐시 삭제 실패: cache = {}, key = {}", getName(), cacheKey, e);
+        }
+        local.evict(cacheKey);
+        publish(cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            shared.clear();
+        } catch (Exception e) {
+            log.warn("Redis 캐시 비우기 실패: cache = {}", getName(), e);
+        }
+        local.clear();
+        publish(null);
+    }
+
+    // L2 확인 → 인스턴스 간 단일 로딩 → 원본 조회 후 L2 저장
+    @SuppressWarnings("unchecked")
+    private <T> T loadShared(String key, Callable<T> loader, Predicate<T> storable) {
+        ValueWrapper value = getShared(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        try {
+            return loadCoordinator.loadOnce(getName() + ":" + key, () -> getShared(key), () -> {
+                T loaded = loader.call();
+                if (storable.test(loaded)) {
+                    putShared(key, loaded);
+                }
+                return loaded;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, loader, e);
+        }
+    }
+
+    // TTL이 얼마 남지 않은 L1 항목은 백그라운드에서 원본을 다시 읽어 L1/L2를 갱신
+    private <T> void refreshIfAged(String key, Supplier<T> loader, Predicate<T> storable) {
+        Optional<Policy.FixedExpiration<Object, Object>> expiration = local.getNativeCache().policy().expireAfterWrite();
+        if (expiration.isEmpty()) {
+            return;
+        }
+        Optional<Duration> age = expiration.get().ageOf(key);
+        if (age.isEmpty() || !loadCoordinator.shouldRefresh(age.get(), expiration.get().getExpiresAfter())) {
+            return;
+        }
+        loadCoordinator.refreshAsync(getName() + ":" + key, () -> {
+            T loaded = loader.get();
+            if (loaded != null && storable.test(loaded)) {
+                putShared(key, loaded);
+                local.put(key, loaded);
+            } else {
+                local.evict(key);
+            }
+        }, () -> {
+            // 다른 인스턴스가 갱신 중 : L2 값으로 L1을 다시 채워 다음 갱신 시점을 늦춘다
+            ValueWrapper value = getShared(key);
+            if (value != null) {
+                local.put(key, value.get());
+            }
+        });
+    }
+
+    /**
+     * 다른 인스턴스에서 온 무효화 메시지 처리 (L1만 비운다)
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            local.clear();
+        } else {
+            local.evict(key);
+        }
+    }
+
+    private ValueWrapper getShared(String key) {
+        try {
+            return shared.get(key);
+        } catch (Exception e) {
+            log.warn("Redis 캐시 조회 실패: cache = {}, key = {}", getName(), key, e);
+            return null;
+        }
+    }
+
+    // 역인덱스를 먼저 기록하고 L2에 저장 (역인덱스 기록에 실패하면 상품 변경 시 지울 수 없으므로 L2에 저장하지 않음)
+    private void putShared(String key, Object value) {
+        try {
+            storeListener.onStore(getName(), key, value);
+            shared.put(key, value);
+        } catch (Exception e) {
+            log.warn("Redis 캐시 저장 실패: cache = {}, key = {}", getName(), key, e);
+        }
+    }
+
+    private void publish(String key) {
+        try {
+            invalidationPublisher.accept(getName(), key);
+        } catch (Exception e) {
+            log.warn("캐시 무효화 메시지 발행 실패: cache = {}, key = {}", getName(), key, e);
+        }
+    }
+
+    private Object fromStoreValue(Object storeValue) {
+        return storeValue == NullValue.INSTANCE ? null : storeValue;
+    }
+
+    // L2(Redis)와 무효화 메시지가 문자열 키를 사용하므로 L1도 같은 키로 저장
+    private String toKey(Object key) {
+        return String.valueOf(key);
+    }
+}
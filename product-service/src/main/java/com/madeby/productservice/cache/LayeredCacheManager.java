@@ -0,0 +1,65 @@
+package com.madeby.productservice.cache;
+
+import org.redisson.api.RTopic;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * LayeredCache(Caffeine L1 + Redis L2) 관리
+ * 캐시가 변경되면 Redis 토픽으로 무효화 메시지를 보내고, 다른 인스턴스는 메시지를 받아 자신의 L1을 비운다.
+ * L1 전용 캐시(localOnlyCaches)는 Redis를 거치지 않고 인스턴스 로컬 Caffeine만 사용한다. (짧은 TTL로 신선도 유지)
+ */
+public class LayeredCacheManager implements CacheManager {
+
+    public static final String INVALIDATION_TOPIC = "product_cache_invalidation";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, LayeredCache> caches = new LinkedHashMap<>();
+    private final Map<String, CaffeineCache> localOnlyCaches;
+    private final RTopic topic;
+
+    public LayeredCacheManager(Map<String, CaffeineCache> localCaches, Map<String, CaffeineCache> localOnlyCaches,
+                               CacheManager sharedCacheManager, RTopic topic,
+                               CacheStoreListener storeListener, CacheLoadCoordinator loadCoordinator) {
+        this.localOnlyCaches = new LinkedHashMap<>(localOnlyCaches);
+        this.topic = topic;
+        localCaches.forEach((name, local) -> caches.put(name, new LayeredCache(
+                local, sharedCacheManager.getCache(name), this::publish, storeListener, loadCoordinator)));
+
+        topic.addListener(CacheInvalidationMessage.class, (channel, message) -> {
+            if (instanceId.equals(message.getOrigin())) {
+                return;
+            }
+            LayeredCache cache = caches.get(message.getCacheName());
+            if (cache != null) {
+                cache.invalidateLocal(message.getKey());
+            }
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        return cache != null ? cache : localOnlyCaches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(caches.keySet());
+        names.addAll(localOnlyCaches.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    private void publish(String cacheName, String key) {
+        topic.publishAsync(new CacheInvalidationMessage(instanceId, cacheName, key));
+    }
+}
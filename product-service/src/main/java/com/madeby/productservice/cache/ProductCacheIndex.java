@@ -0,0 +1,114 @@
+package com.madeby.productservice.cache;
+
+import com.madeby.productservice.dto.CursorSliceDto;
+import com.madeby.productservice.dto.ProductsDto;
+import com.madeby.productservice.dto.ProductsWithoutInfoDto;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RSetAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 상품 → 캐시 키 역인덱스
+ * 목록/검색 캐시는 페이지·검색어 단위 키라 상품 ID로는 어떤 항목에 들어 있는지 알 수 없다.
+ * 캐시에 값이 저장될 때 값에 포함된 상품마다 product_cache_index:{productId} 집합에 "캐시이름|키"를 기록해 두고,
+ * 상품이 변경되면 그 상품이 들어 있는 항목만 삭제한다.
+ * 인덱스는 L2 캐시와 같은 TTL을 가지며, 이미 만료된 키를 가리키는 항목은 삭제해도 무해하다.
+ */
+@Component
+public class ProductCacheIndex implements CacheStoreListener {
+
+    private static final String INDEX_KEY_PREFIX = "product_cache_index:";
+    private static final String SEPARATOR = "|";
+
+    private final RedissonClient redissonClient;
+    private final Duration ttl;
+
+    public ProductCacheIndex(RedissonClient redissonClient,
+                             @Value("${product.cache.shared-ttl-minutes:360}") long sharedTtlMinutes) {
+        this.redissonClient = redissonClient;
+        this.ttl = Duration.ofMinutes(sharedTtlMinutes);
+    }
+
+    @Override
+    public void onStore(String cacheName, String key, Object value) {
+        Set<Long> productIds = productIdsOf(value);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        // 값을 L2에 저장하기 전에 파이프라인 1회로 기록 (저장 후 기록하면 그 사이의 상품 변경이 이 키를 놓친다)
+        String member = cacheName + SEPARATOR + key;
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        for (Long productId : productIds) {
+            RSetAsync<String> index = batch.getSet(INDEX_KEY_PREFIX + productId, StringCodec.INSTANCE);
+            index.addAsync(member);
+            index.expireAsync(ttl);
+        }
+        batch.execute();
+    }
+
+    /**
+     * 상품이 포함된 캐시 항목을 꺼내고 인덱스를 삭제 (MULTI/EXEC로 조회와 삭제 사이에 추가된 항목을 놓치지 않는다)
+     */
+    @SuppressWarnings("unchecked")
+    public List<Entry> removeEntries(Long productId) {
+        String indexKey = INDEX_KEY_PREFIX + productId;
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults()
+                .executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+        batch.getSet(indexKey, StringCodec.INSTANCE).readAllAsync();
+        batch.getSet(indexKey, StringCodec.INSTANCE).deleteAsync();
+        BatchResult<?> result = batch.execute();
+
+        Collection<String> members = (Collection<String>) result.getResponses().get(0);
+        List<Entry> entries = new ArrayList<>(members.size());
+        for (String member : members) {
+            int separator = member.indexOf(SEPARATOR);
+            if (separator > 0) {
+                entries.add(new Entry(member.substring(0, separator), member.substring(separator + 1)));
+            }
+        }
+        return entries;
+    }
+
+    // 캐시 값에 포함된 상품 ID (Slice / CursorSliceDto / List / 단건 DTO)
+    private Set<Long> productIdsOf(Object value) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        if (value instanceof Slice<?> slice) {
+            slice.getContent().forEach(item -> addProductId(productIds, item));
+        } else if (value instanceof CursorSliceDto<?> cursorSlice) {
+            cursorSlice.getContent().forEach(item -> addProductId(productIds, item));
+        } else if (value instanceof Collection<?> collection) {
+            collection.forEach(item -> addProductId(productIds, item));
+        } else {
+            addProductId(productIds, value);
+        }
+        return productIds;
+    }
+
+    private void addProductId(Set<Long> productIds, Object item) {
+        Long productId = null;
+        if (item instanceof ProductsWithoutInfoDto product) {
+            productId = product.getId();
+        } else if (item instanceof ProductsDto product) {
+            productId = product.getId();
+        }
+        if (productId != null) {
+            productIds.add(productId);
+        }
+    }
+
+    public record Entry(String cacheName, String key) {
+    }
+}
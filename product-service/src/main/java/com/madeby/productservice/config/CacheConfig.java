@@ -1,32 +1,90 @@
 package com.madeby.productservice.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.madeby.productservice.cache.CacheLoadCoordinator;
+import com.madeby.productservice.cache.LayeredCacheManager;
+import com.madeby.productservice.cache.ProductCacheIndex;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
-import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * 상품 캐시 : Caffeine(L1, 인스턴스 로컬) + Redis(L2, 인스턴스 공유) 2단계 캐시
+ * 인스턴스가 늘어도 L2에서 다른 인스턴스가 채운 값을 재사용하고, 변경은 Redis pub/sub으로 모든 인스턴스의 L1에 전파한다.
+ * 상품 변경 시에는 ProductCacheIndex로 해당 상품이 들어 있는 항목만 삭제하므로 L2 TTL을 길게 둘 수 있다.
+ * 자동완성(productSuggest)은 L1에만 둔다. (키 입력마다 Redis에 쓰지 않도록)
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final String REDIS_KEY_PREFIX = "product_cache:";
+
+    @Value("${product.cache.local-ttl-minutes:10}")
+    private long localTtlMinutes; // 무효화 메시지를 놓친 경우를 대비해 L2보다 짧게 유지
+
+    @Value("${product.cache.shared-ttl-minutes:360}")
+    private long sharedTtlMinutes;
+
+    @Value("${product.cache.local-max-size:3000}")
+    private long localMaxSize;
+
+    @Value("${product.cache.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio;
+
+    @Value("${product.cache.load-lock-wait-ms:2000}")
+    private long loadLockWaitMillis;
+
     @Bean
-    public Caffeine caffeineConfig() {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(60, TimeUnit.MINUTES)  // 60분 후 캐시 만료
-                .maximumSize(3000)                       // 최대 3000개 항목까지 캐시
-                .recordStats();                          // 캐시 통계 기록
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, RedissonClient redissonClient,
+                                     ProductCacheIndex productCacheIndex) {
+        Map<String, CaffeineCache> localCaches = new LinkedHashMap<>();
+        localCaches.put("products", localCache("products", Duration.ofMinutes(localTtlMinutes), localMaxSize));
+        localCaches.put("productSearch", localCache("productSearch", Duration.ofMinutes(localTtlMinutes), localMaxSize));
+        // 상품 상세 : 재고는 조회 시점에 Redis에서 덧씌우므로 재고 변경으로는 무효화하지 않는다
+        localCaches.put("productDetail", localCache("productDetail", Duration.ofMinutes(localTtlMinutes), localMaxSize));
+        // 자동완성 : 접두어 수가 많고 신선도가 중요하므로 짧은 TTL의 L1 전용 캐시 (상품 변경은 TTL로 반영)
+        Map<String, CaffeineCache> localOnlyCaches = Map.of(
+                "productSuggest", localCache("productSuggest", Duration.ofMinutes(1), 10_000));
+
+        // L2 : 캐시 값(Slice, DTO)을 그대로 저장하기 위해 JDK 직렬화 사용, clear는 KEYS 대신 SCAN으로 삭제
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(sharedTtlMinutes))
+                .computePrefixWith(cacheName -> REDIS_KEY_PREFIX + cacheName + ":")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        RedisSerializer.java(getClass().getClassLoader())));
+        RedisCacheManager sharedCacheManager = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory, BatchStrategies.scan(1000)))
+                .cacheDefaults(defaults)
+                .build();
+        sharedCacheManager.initializeCaches();
+
+        return new LayeredCacheManager(localCaches, localOnlyCaches, sharedCacheManager,
+                redissonClient.getTopic(LayeredCacheManager.INVALIDATION_TOPIC), productCacheIndex,
+                new CacheLoadCoordinator(redissonClient, Duration.ofMillis(loadLockWaitMillis), Duration.ofSeconds(10),
+                        refreshAheadRatio, 4));
     }
 
-    @Bean
-    public CacheManager cacheManager(Caffeine caffeine) {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(caffeine);
-        cacheManager.setCacheNames(Arrays.asList("products", "productSearch")); // 캐시 이름 지정
-        return cacheManager;
+    private CaffeineCache localCache(String name, Duration ttl, long maxSize) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()                           // 캐시 통계 기록
+                .build());
     }
 }
@@ -4,20 +4,27 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.madeBy.shared.common.ApiResponse;
 import com.madeBy.shared.exception.MadeByErrorCode;
 import com.madeBy.shared.exception.MadeByException;
+import com.madeby.productservice.dto.CursorSliceDto;
+import com.madeby.productservice.dto.ProductFilterCondition;
+import com.madeby.productservice.dto.ProductFilterSearchDto;
 import com.madeby.productservice.dto.ProductInfoDto;
+import com.madeby.productservice.dto.ProductSuggestDto;
 import com.madeby.productservice.dto.ProductsDto;
 import com.madeby.productservice.dto.ProductsWithoutInfoDto;
 import com.madeby.productservice.entity.Products;
+import com.madeby.productservice.service.ProductFilterSearchService;
+import com.madeby.productservice.service.ProductSuggestService;
 import com.madeby.productservice.service.ProductsService;
+import com.madeby.productservice.util.RedisInitializer;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +35,9 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductsService productsService;
+    private final ProductSuggestService productSuggestService;
+    private final ProductFilterSearchService productFilterSearchService;
+    private final RedisInitializer redisInitializer;
 
     @PostMapping("/products/register")
     public ResponseEntity<ApiResponse<Products>> registerProduct(@RequestBody ProductsDto productsDto) {
@@ -54,6 +64,12 @@ public class ProductController {
         return ResponseEntity.ok(success);
     }
 
+    //Redis 재고 전체 재적재 (DB 기준으로 덮어쓰기, 주문이 멈춘 상태에서 관리자만 실행)
+    @PostMapping("/products/stock/reseed")
+    public ResponseEntity<ApiResponse<Long>> reseedStocks() {
+        return ResponseEntity.ok(ApiResponse.success(redisInitializer.reseedAll()));
+    }
+
     @PostMapping("/products/{productInfoId}/decrement-stock")
     public ResponseEntity<Boolean> decrementStock(
             @PathVariable Long productInfoId,
@@ -101,25 +117,62 @@ public class ProductController {
     @GetMapping("/products/search")
     public ResponseEntity<?> searchProducts(
             @RequestParam String name,
-            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") Integer size) {
 
         try {
-            // cursor가 null일 경우 기본값 8000 설정(임시)
-            Long adjustedCursor = cursor == null ? 8000L : cursor;
-
-            Slice<ProductsWithoutInfoDto> results = productsService.searchProductsByName(name, cursor, size);
+            CursorSliceDto<ProductsWithoutInfoDto> results = productsService.searchProductsByName(name, cursor, size);
 
             return ResponseEntity.ok(new SliceResponse<>(
                     results.getContent(),
-                    results.hasNext(),
-                    results.getNumberOfElements()
+                    results.isHasNext(),
+                    results.getContent().size(),
+                    results.getNextCursor()
             ));
         } catch (MadeByException e) {
             return ResponseEntity.badRequest().body(ApiResponse.failure(MadeByErrorCode.NO_SEARCH_RESULT.name(), MadeByErrorCode.NO_SEARCH_RESULT.getMessage()));
         }
     }
 
+    //상품 필터 검색 (카테고리/가격/색상/사이즈 조건 + 항목별 상품 수)
+    @GetMapping("/products/filter")
+    public ResponseEntity<ApiResponse<ProductFilterSearchDto>> filterProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) List<String> colors,
+            @RequestParam(required = false) List<String> sizes,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (size <= 0 || size > 100) {
+            throw new MadeByException(MadeByErrorCode.OUT_OF_RANGE);
+        }
+        ProductFilterCondition condition = ProductFilterCondition.builder()
+                .name(name)
+                .categories(categories)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .colors(colors)
+                .sizes(sizes)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(productFilterSearchService.search(condition, cursor, size)));
+    }
+
+    //상품명 자동완성
+    @GetMapping("/products/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestDto>>> suggestProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size <= 0 || size > 20) {
+            throw new MadeByException(MadeByErrorCode.OUT_OF_RANGE);
+        }
+        if (q.isBlank()) {
+            return ResponseEntity.ok(ApiResponse.success(List.of()));
+        }
+        return ResponseEntity.ok(ApiResponse.success(productSuggestService.suggest(q, size)));
+    }
+
     //캐시 조회(확인용)
     @GetMapping("/products/cache/all/{cacheName}")
     public ResponseEntity<?> getAllCacheContents(@PathVariable String cacheName) {
@@ -154,5 +207,6 @@ public class ProductController {
         private List<T> content;
         private boolean hasNext;
         private int numberOfElements;
+        private String nextCursor; // 다음 페이지 요청 시 cursor 파라미터로 전달
     }
 }
@@ -0,0 +1,17 @@
+package com.madeby.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceDto<T> implements Serializable {
+    private List<T> content;
+    private boolean hasNext;
+    private String nextCursor; // 다음 페이지 조회용 커서 (마지막 페이지면 null)
+}
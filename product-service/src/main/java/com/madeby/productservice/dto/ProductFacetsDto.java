@@ -0,0 +1,29 @@
+package com.madeby.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 필터 검색 결과의 항목별 상품 수 (필터 UI 구성용)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDto {
+    private List<FacetCount> categories;
+    private List<FacetCount> colors;
+    private List<FacetCount> sizes;
+    private Double minPrice; // 조건에 맞는 옵션의 최저가 (결과가 없으면 null)
+    private Double maxPrice;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        private long count; // 해당 값의 옵션을 가진 상품 수
+    }
+}
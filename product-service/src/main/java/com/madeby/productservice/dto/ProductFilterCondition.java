@@ -0,0 +1,34 @@
+package com.madeby.productservice.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 상품 필터 검색 조건 (값이 없는 조건은 적용하지 않는다)
+ * 가격/색상/사이즈 조건은 같은 옵션(productInfo) 하나가 모두 만족해야 한다.
+ */
+@Getter
+@Builder
+public class ProductFilterCondition {
+    private String name;
+    private List<String> categories;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private List<String> colors;
+    private List<String> sizes;
+
+    public boolean hasName() {
+        return name != null && !name.isBlank();
+    }
+
+    public boolean hasOptionFilter() {
+        return minPrice != null || maxPrice != null || hasValues(colors) || hasValues(sizes);
+    }
+
+    public static boolean hasValues(List<String> values) {
+        return values != null && !values.isEmpty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.madeby.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilterSearchDto {
+    private List<ProductsWithoutInfoDto> content;
+    private boolean hasNext;
+    private String nextCursor;
+    private ProductFacetsDto facets; // 첫 페이지에서만 계산 (다음 페이지는 null)
+}
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.madeby.productservice.entity.ProductInfo;
 import lombok.*;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -12,7 +14,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @NoArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class ProductInfoDto {
+public class ProductInfoDto implements Serializable {
     private Long id;
     private BigDecimal price;
     private int stock;
@@ -21,6 +23,7 @@ public class ProductInfoDto {
     private Long productId;
     private boolean isLimited;
     private boolean isVisible;
+    private LocalDateTime releaseAt; // 한정 상품 공개 시각
 
     public static ProductInfoDto fromEntity(ProductInfo productInfo) {
         return ProductInfoDto.builder()
@@ -32,6 +35,7 @@ public class ProductInfoDto {
                 .productId(productInfo.getProducts().getId())
                 .isLimited(productInfo.isLimited())
                 .isVisible(productInfo.isVisible())
+                .releaseAt(productInfo.getReleaseAt())
                 .build();
     }
 }
\ No newline at end of file
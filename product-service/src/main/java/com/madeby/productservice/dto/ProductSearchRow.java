@@ -0,0 +1,16 @@
+package com.madeby.productservice.dto;
+
+/**
+ * 네이티브 검색 쿼리 결과 (인터페이스 프로젝션)
+ */
+public interface ProductSearchRow {
+    Long getId();
+
+    String getName();
+
+    String getImage();
+
+    String getDescription();
+
+    String getCategory();
+}
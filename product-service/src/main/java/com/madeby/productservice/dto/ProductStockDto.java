@@ -0,0 +1,14 @@
+package com.madeby.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockDto {
+    private Long id;
+    private int stock;
+    private boolean isLimited;
+}
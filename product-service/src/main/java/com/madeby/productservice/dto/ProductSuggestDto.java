@@ -0,0 +1,15 @@
+package com.madeby.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestDto implements Serializable {
+    private Long id;
+    private String name;
+}
@@ -2,6 +2,7 @@ package com.madeby.productservice.dto;
 
 import lombok.*;
 
+import java.io.Serializable;
 import java.util.List;
 
 @Getter
@@ -9,7 +10,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class ProductsDto {
+public class ProductsDto implements Serializable {
     private Long id;
     private String name;
     private String image;
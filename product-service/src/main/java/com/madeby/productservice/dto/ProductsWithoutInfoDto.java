@@ -2,13 +2,14 @@ package com.madeby.productservice.dto;
 
 import lombok.*;
 
+import java.io.Serializable;
 import java.util.List;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Builder
-public class ProductsWithoutInfoDto {
+public class ProductsWithoutInfoDto implements Serializable {
     private Long id;
     private String name;
     private String image;
@@ -0,0 +1,58 @@
+package com.madeby.productservice.dto;
+
+import com.madeBy.shared.exception.MadeByErrorCode;
+import com.madeBy.shared.exception.MadeByException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 검색 커서 (클라이언트에는 Base64 문자열로만 노출)
+ * - Elasticsearch : "s:{score}:{id}" → search_after 값
+ * - DB : "d:{id}" → id < cursor
+ * 커서를 만든 쪽으로 다음 페이지를 이어서 조회해 페이지 사이에 결과가 섞이지 않도록 한다.
+ */
+public record SearchCursor(Source source, double score, long id) {
+
+    public enum Source {
+        ELASTICSEARCH, DATABASE
+    }
+
+    public static String ofElasticsearch(double score, long id) {
+        return encode("s:" + score + ":" + id);
+    }
+
+    public static String ofDatabase(long id) {
+        return encode("d:" + id);
+    }
+
+    /**
+     * @return 토큰이 없으면 null (첫 페이지)
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if ("s".equals(parts[0]) && parts.length == 3) {
+                return new SearchCursor(Source.ELASTICSEARCH, Double.parseDouble(parts[1]), Long.parseLong(parts[2]));
+            }
+            if ("d".equals(parts[0]) && parts.length == 2) {
+                return new SearchCursor(Source.DATABASE, 0, Long.parseLong(parts[1]));
+            }
+        } catch (IllegalArgumentException e) {
+            // 아래에서 잘못된 요청으로 처리
+        }
+        throw new MadeByException(MadeByErrorCode.INVALID_REQUEST, "잘못된 검색 커서입니다.");
+    }
+
+    public boolean isElasticsearch() {
+        return source == Source.ELASTICSEARCH;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.madeby.productservice.elasticsearch;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Elasticsearch 호출 보호 (resilience4j "elasticsearch" 인스턴스)
+ * - TimeLimiter : 호출마다 응답 시간 상한을 두어 느린 Elasticsearch를 기다리지 않고 바로 폴백
+ * - Bulkhead : 동시에 Elasticsearch를 기다리는 요청 수 제한 (Tomcat 스레드가 모두 묶이지 않도록)
+ * - CircuitBreaker : 실패/지연 호출 비율이 높으면 일정 시간 호출 자체를 생략 (CallNotPermittedException)
+ * 서킷 상태와 호출 지표는 resilience4j.circuitbreaker.* 로 노출된다.
+ */
+@Component
+public class ElasticsearchGuard {
+
+    public static final String INSTANCE = "elasticsearch";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+    private final ThreadPoolExecutor executor;
+
+    public ElasticsearchGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                              BulkheadRegistry bulkheadRegistry,
+                              TimeLimiterRegistry timeLimiterRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        this.timeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE);
+
+        // 시간 초과로 포기한 호출이 스레드를 계속 점유할 수 있으므로 대기열까지 bulkhead 크기로 제한 (초과 시 거절 → 폴백)
+        int concurrency = bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency), r -> {
+            Thread thread = new Thread(r, "es-guard-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 보호된 Elasticsearch 호출
+     *
+     * @throws Exception 서킷 열림, bulkhead 초과, 시간 초과, Elasticsearch 오류 (호출 측에서 폴백)
+     */
+    public <T> T execute(Supplier<T> call) throws Exception {
+        Callable<T> timeLimited = TimeLimiter.decorateFutureSupplier(timeLimiter,
+                () -> CompletableFuture.supplyAsync(call, executor));
+        Callable<T> isolated = Bulkhead.decorateCallable(bulkhead, timeLimited);
+        return circuitBreaker.executeCallable(isolated);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,267 @@
+package com.madeby.productservice.elasticsearch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madeby.productservice.entity.ProductDocument;
+import com.madeby.productservice.entity.Products;
+import com.madeby.productservice.repository.ProductsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 상품 문서 비동기 색인 큐
+ * 상품 변경 시 Elasticsearch를 직접 호출하지 않고 큐에 넣어 두면, 일정 개수(bulk-size) 또는 일정 시간(flush-interval-ms)마다
+ * bulk API로 한 번에 반영한다. 같은 상품의 변경은 마지막 요청만 남긴다.
+ * 실패한 요청은 지수 백오프로 재시도하고, 최대 횟수를 넘기면 Redis 리스트에 보관했다가 주기적으로 DB에서 다시 읽어 큐에 넣는다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductIndexQueue {
+
+    private static final String FAILED_OPS_KEY = "product_index_failed";
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final ProductElasticsearchRepository productElasticsearchRepository;
+    private final ProductsRepository productsRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${search.indexer.bulk-size:500}")
+    private int bulkSize;
+
+    @Value("${search.indexer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${search.indexer.backoff-ms:1000}")
+    private long backoffMillis;
+
+    private final Map<Long, IndexOp> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "product-index-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 문서 색인 요청 (트랜잭션 안이면 커밋 후 큐에 넣는다)
+     */
+    public void save(ProductDocument document) {
+        afterCommit(new IndexOp(document.getId(), IndexOp.Type.SAVE, document, 0, 0));
+    }
+
+    /**
+     * 문서 삭제 요청 (트랜잭션 안이면 커밋 후 큐에 넣는다)
+     */
+    public void delete(Long productId) {
+        afterCommit(new IndexOp(productId, IndexOp.Type.DELETE, null, 0, 0));
+    }
+
+    private void afterCommit(IndexOp op) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(op);
+                }
+            });
+            return;
+        }
+        enqueue(op);
+    }
+
+    private void enqueue(IndexOp op) {
+        pending.put(op.getProductId(), op);
+        if (pending.size() >= bulkSize) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * 모인 요청을 bulk API로 반영
+     */
+    @Scheduled(fixedDelayString = "${search.indexer.flush-interval-ms:500}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return; // 다른 스레드가 반영 중
+        }
+        try {
+            drain(false);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void drain(boolean ignoreBackoff) {
+        long now = System.currentTimeMillis();
+        List<IndexOp> batch = new ArrayList<>();
+        for (IndexOp op : pending.values()) {
+            if (ignoreBackoff || op.getNotBefore() <= now) {
+                // 그 사이 더 새로운 요청이 들어왔으면 제거하지 않는다
+                if (pending.remove(op.getProductId(), op)) {
+                    batch.add(op);
+                }
+            }
+            if (batch.size() == bulkSize) {
+                execute(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        execute(batch);
+    }
+
+    private void execute(List<IndexOp> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<IndexOp.Type, List<IndexOp>> byType = batch.stream().collect(Collectors.groupingBy(IndexOp::getType));
+
+        List<IndexOp> saves = byType.getOrDefault(IndexOp.Type.SAVE, List.of());
+        if (!saves.isEmpty()) {
+            try {
+                productElasticsearchRepository.saveAll(saves.stream().map(IndexOp::getDocument).toList());
+            } catch (BulkFailureException e) {
+                // 실패한 문서만 재시도
+                Set<String> failedIds = e.getFailedDocuments().keySet();
+                saves.stream()
+                        .filter(op -> failedIds.contains(String.valueOf(op.getProductId())))
+                        .forEach(op -> retry(op, e));
+            } catch (Exception e) {
+                saves.forEach(op -> retry(op, e));
+            }
+        }
+
+        List<IndexOp> deletes = byType.getOrDefault(IndexOp.Type.DELETE, List.of());
+        if (!deletes.isEmpty()) {
+            try {
+                productElasticsearchRepository.deleteAllById(deletes.stream().map(IndexOp::getProductId).toList());
+            } catch (Exception e) {
+                deletes.forEach(op -> retry(op, e));
+            }
+        }
+        log.debug("Elasticsearch bulk 반영: save = {}, delete = {}", saves.size(), deletes.size());
+    }
+
+    private void retry(IndexOp op, Exception cause) {
+        int attempts = op.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            persistFailed(op);
+            log.error("Elasticsearch 색인 최종 실패 (재처리 대기열 보관): productId = {}, type = {}",
+                    op.getProductId(), op.getType(), cause);
+            return;
+        }
+        long backoff = Math.min(backoffMillis * (1L << (attempts - 1)), MAX_BACKOFF_MILLIS);
+        IndexOp retryOp = new IndexOp(op.getProductId(), op.getType(), op.getDocument(), attempts,
+                System.currentTimeMillis() + backoff);
+        // 더 새로운 요청이 이미 들어와 있으면 재시도하지 않는다
+        pending.putIfAbsent(op.getProductId(), retryOp);
+        log.warn("Elasticsearch 색인 실패, {}ms 후 재시도 ({}회): productId = {}", backoff, attempts, op.getProductId());
+    }
+
+    private void persistFailed(IndexOp op) {
+        try {
+            redisTemplate.opsForList().rightPush(FAILED_OPS_KEY, objectMapper.writeValueAsString(op));
+        } catch (Exception e) {
+            log.error("색인 실패 요청 보관 실패: productId = {}", op.getProductId(), e);
+        }
+    }
+
+    /**
+     * Redis에 보관된 실패 요청을 다시 큐에 넣는다.
+     * 보관된 문서는 그 사이 변경/삭제로 오래된 상태일 수 있으므로 상품 ID만 사용하고, 현재 DB 상태를 다시 읽어
+     * 있으면 최신 문서로 색인, 없으면 삭제한다. (오래된 문서로 되돌리거나 삭제된 상품을 되살리지 않도록)
+     */
+    @Scheduled(fixedDelayString = "${search.indexer.replay-interval-ms:60000}")
+    public void replayFailed() {
+        List<Object> values = new ArrayList<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (int i = 0; i < bulkSize; i++) {
+            Object value = redisTemplate.opsForList().leftPop(FAILED_OPS_KEY);
+            if (value == null) {
+                break;
+            }
+            try {
+                productIds.add(objectMapper.readValue((String) value, IndexOp.class).getProductId());
+                values.add(value);
+            } catch (Exception e) {
+                log.error("색인 실패 요청 복원 실패: {}", value, e);
+            }
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Products> products;
+        try {
+            products = productsRepository.findWithProductInfosByIdIn(productIds).stream()
+                    .collect(Collectors.toMap(Products::getId, Function.identity()));
+        } catch (Exception e) {
+            // DB 조회 실패 시 다음 주기에 다시 시도
+            values.forEach(value -> redisTemplate.opsForList().rightPush(FAILED_OPS_KEY, value));
+            log.error("색인 실패 요청 재처리용 상품 조회 실패: {}건", productIds.size(), e);
+            return;
+        }
+
+        for (Long productId : productIds) {
+            Products product = products.get(productId);
+            IndexOp op = product == null
+                    ? new IndexOp(productId, IndexOp.Type.DELETE, null, 0, 0)
+                    : new IndexOp(productId, IndexOp.Type.SAVE, ProductDocument.fromEntity(product), 0, 0);
+            // 더 새로운 요청이 이미 들어와 있으면 그 요청을 따른다
+            pending.putIfAbsent(productId, op);
+        }
+        log.info("색인 실패 요청 재처리: {}건", productIds.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushExecutor.shutdown();
+        flushLock.lock();
+        try {
+            drain(true);
+            // 종료 시점까지 반영하지 못한 요청은 보관
+            pending.values().forEach(this::persistFailed);
+            pending.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IndexOp {
+        private Long productId;
+        private Type type;
+        private ProductDocument document;
+        private int attempts;
+        private long notBefore; // 이 시각 이후에 재시도
+
+        public enum Type {
+            SAVE, DELETE
+        }
+    }
+}
@@ -16,7 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Document(indexName = "products")
-@Setting(settingPath = "elasticsearch/es-settings.json")
+@Setting(settingPath = "elasticsearch/es-setting.json")
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,6 +28,10 @@ public class ProductDocument {
     @Field(type = FieldType.Text, analyzer = "nori", searchAnalyzer = "nori")
     private String name;
 
+    // 자동완성용 (search_as_you_type : 접두어/shingle 하위 필드 자동 생성)
+    @Field(type = FieldType.Search_As_You_Type, maxShingleSize = 3)
+    private String nameSuggest;
+
     @Field(type = FieldType.Keyword)
     private String category;
 
@@ -42,4 +46,27 @@ public class ProductDocument {
 
     @Field(type = FieldType.Nested)
     private List<ProductInfoDocument> productInfos = new ArrayList<>();
-}
\ No newline at end of file
+
+    public static ProductDocument fromEntity(Products product) {
+        return ProductDocument.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .nameSuggest(product.getName())
+                .category(product.getCategory())
+                .description(product.getDescription())
+                .image(product.getImage())
+                .isVisible(product.isVisible())
+                .productInfos(product.getProductInfos().stream()
+                        .map(info -> ProductInfoDocument.builder()
+                                .id(info.getId())
+                                .price(info.getPrice())
+                                .stock(info.getStock())
+                                .size(info.getSize())
+                                .color(info.getColor())
+                                .isLimited(info.isLimited())
+                                .isVisible(info.isVisible())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
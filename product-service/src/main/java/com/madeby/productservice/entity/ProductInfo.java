@@ -7,11 +7,13 @@ import lombok.*;
 import org.hibernate.annotations.Comment;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "product_info", indexes = {
         @Index(name = "idx_product_info_stock", columnList = "id,stock"),
-        @Index(name = "idx_product_info_visible", columnList = "is_visible")
+        @Index(name = "idx_product_info_visible", columnList = "is_visible"),
+        @Index(name = "idx_product_info_release", columnList = "is_limited,is_visible,release_at")
 })
 @Getter
 @Setter
@@ -55,4 +57,7 @@ public class ProductInfo {
     @Builder.Default
     private boolean isVisible = true;
 
+    @Comment(value = "한정 상품 공개 시각")
+    private LocalDateTime releaseAt;
+
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.madeby.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "product_outbox", indexes = {
+        @Index(name = "idx_product_outbox_published_id", columnList = "published,id")
+})
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @Comment(value = "상품 ID")
+    private Long productId;
+
+    @Column(nullable = false, length = 20)
+    @Comment(value = "변경 유형 (CREATED, UPSERTED, DELETED, STOCK_CHANGED)")
+    private String type;
+
+    @Column(length = 1000)
+    @Comment(value = "삭제된 옵션 ID 목록 (콤마 구분)")
+    private String productInfoIds;
+
+    @Column(nullable = false)
+    @Comment(value = "Kafka 발행 여부")
+    @Builder.Default
+    private boolean published = false;
+
+    @Column(nullable = false)
+    @Comment(value = "생성 시각")
+    private LocalDateTime createdAt;
+}
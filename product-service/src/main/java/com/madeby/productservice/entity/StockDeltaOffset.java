@@ -0,0 +1,26 @@
+package com.madeby.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+/**
+ * 재고 변경분(stock-delta-topic) 파티션별 DB 반영 위치
+ * 재고 UPDATE와 같은 트랜잭션에서 갱신해, 재수신한 변경분을 두 번 반영하지 않도록 한다. (StockWriteBehindService)
+ */
+@Entity
+@Table(name = "stock_delta_offset")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockDeltaOffset {
+    @Id
+    @Comment(value = "stock-delta-topic 파티션")
+    private Integer partitionId;
+
+    @Column(nullable = false)
+    @Comment(value = "DB에 반영된 다음 offset (이보다 작은 offset은 반영 완료)")
+    private Long nextOffset;
+}
@@ -1,12 +1,16 @@
 package com.madeby.productservice.repository;
 
+import com.madeby.productservice.dto.ProductStockDto;
 import com.madeby.productservice.entity.ProductInfo;
 import com.madeby.productservice.entity.Products;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductInfoRepository extends JpaRepository<ProductInfo, Long> {
@@ -19,4 +23,38 @@ public interface ProductInfoRepository extends JpaRepository<ProductInfo, Long>
     boolean existsByProductsAndColorAndSize(Products product, String color, String size);
 
     List<ProductInfo> findByIsLimitedTrue();
+
+    // releaseAt까지 공개될 한정 옵션이 있는 상품
+    @Query("SELECT DISTINCT p.products.id FROM ProductInfo p " +
+            "WHERE p.isLimited = true AND p.isVisible = false AND p.releaseAt <= :releaseAt")
+    List<Long> findProductIdsToRelease(@Param("releaseAt") LocalDateTime releaseAt);
+
+    // 옵션이 속한 상품 ID (재고 변경 파생 데이터 동기화용)
+    @Query("SELECT DISTINCT p.products.id FROM ProductInfo p WHERE p.id IN :ids")
+    List<Long> findProductIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 한정 옵션 일괄 공개 (이미 공개된 옵션은 제외되므로 여러 인스턴스가 실행해도 한 번만 반영)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ProductInfo p SET p.isVisible = true " +
+            "WHERE p.isLimited = true AND p.isVisible = false AND p.releaseAt <= :releaseAt")
+    int releaseLimited(@Param("releaseAt") LocalDateTime releaseAt);
+
+    // until까지 도래하는 미공개 한정 옵션의 공개 시각 (지난 시각 포함, 오름차순)
+    @Query("SELECT DISTINCT p.releaseAt FROM ProductInfo p " +
+            "WHERE p.isLimited = true AND p.isVisible = false AND p.releaseAt <= :until " +
+            "ORDER BY p.releaseAt ASC")
+    List<LocalDateTime> findReleaseTimesUntil(@Param("until") LocalDateTime until);
+
+    // 공개 시각이 없는 미공개 한정 옵션에 기본 공개 시각 지정
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ProductInfo p SET p.releaseAt = :releaseAt " +
+            "WHERE p.isLimited = true AND p.isVisible = false AND p.releaseAt IS NULL")
+    int assignReleaseAt(@Param("releaseAt") LocalDateTime releaseAt);
+
+    // id 순서로 재고만 페이지 조회 (엔티티 로딩 없이)
+    @Query("SELECT new com.madeby.productservice.dto.ProductStockDto(p.id, p.stock, p.isLimited) " +
+            "FROM ProductInfo p " +
+            "WHERE p.id > :lastId " +
+            "ORDER BY p.id ASC")
+    List<ProductStockDto> findStockPage(@Param("lastId") Long lastId, Pageable pageable);
 }
@@ -0,0 +1,24 @@
+package com.madeby.productservice.repository;
+
+import com.madeby.productservice.entity.ProductOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductOutboxRepository extends JpaRepository<ProductOutbox, Long> {
+
+    List<ProductOutbox> findTop500ByPublishedFalseOrderByIdAsc();
+
+    @Modifying
+    @Query("UPDATE ProductOutbox o SET o.published = true WHERE o.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM ProductOutbox o WHERE o.published = true AND o.createdAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,5 +1,6 @@
 package com.madeby.productservice.repository;
 
+import com.madeby.productservice.dto.ProductSearchRow;
 import com.madeby.productservice.dto.ProductsDto;
 import com.madeby.productservice.dto.ProductsWithoutInfoDto;
 import com.madeby.productservice.entity.Products;
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +26,13 @@ public interface ProductsRepository extends JpaRepository<Products, Long> {
     @EntityGraph(attributePaths = {"productInfos"})
     Optional<Products> findByIdAndIsVisibleTrue(Long id);
 
+    // 노출 여부와 관계없이 옵션까지 함께 조회 (파생 데이터 동기화용)
+    @EntityGraph(attributePaths = {"productInfos"})
+    Optional<Products> findWithProductInfosById(Long id);
+
+    @EntityGraph(attributePaths = {"productInfos"})
+    List<Products> findWithProductInfosByIdIn(Collection<Long> ids);
+
     //name으로 검색
     List<Products> findByNameContainingAndIsVisibleTrue(String name);
 
@@ -47,6 +56,18 @@ public interface ProductsRepository extends JpaRepository<Products, Long> {
                                                         @Param("cursor") Long cursor,
                                                         Pageable pageable);
 
+    // ngram FULLTEXT 인덱스(ft_products_name) 검색 : keyword는 "검색어" 형태의 구문(phrase)으로 전달
+    @Query(value = "SELECT p.id AS id, p.name AS name, p.image AS image, p.description AS description, p.category AS category " +
+            "FROM products p " +
+            "WHERE MATCH(p.name) AGAINST(:keyword IN BOOLEAN MODE) " +
+            "AND p.is_visible = true " +
+            "AND (:cursor IS NULL OR p.id < :cursor) " +
+            "ORDER BY p.id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<ProductSearchRow> fullTextSearchWithCursor(@Param("keyword") String keyword,
+                                                    @Param("cursor") Long cursor,
+                                                    @Param("limit") int limit);
+
     @Query("SELECT new com.madeby.productservice.dto.ProductsWithoutInfoDto(p.id, p.name, p.image, p.description, p.category) " +
             "FROM Products p " +
             "WHERE p.isVisible = true AND p.id < :cursor " +
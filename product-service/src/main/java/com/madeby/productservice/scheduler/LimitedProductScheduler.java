@@ -1,21 +1,194 @@
 package com.madeby.productservice.scheduler;
 
-import com.madeby.productservice.service.ProductsService;
+import com.madeby.productservice.service.LimitedReleaseService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한정 상품 공개 스케줄러
+ * 옵션마다 지정된 공개 시각(releaseAt)에 그 시각이 된 옵션만 공개한다.
+ * - 앞으로 lookahead-minutes 안에 도래하는 공개 시각을 DB에서 읽어 DelayQueue에 넣고,
+ *   전용 스레드가 공개 시각 prewarm-seconds 전에 준비(stage), 공개 시각에 반영(release)을 실행한다. (밀리초 단위)
+ * - 이 인스턴스에서 등록한 옵션은 register로 바로 예약하고, 다른 인스턴스에서 등록한 옵션은 주기 조회(refresh)로 예약된다.
+ * - 서비스가 내려가 있었거나 공개에 실패해 지나친 공개 시각은 주기 조회에서 바로 공개한다. (catch-up)
+ * 여러 인스턴스가 같은 시각을 공개해도 UPDATE 결과로 한 번만 반영된다.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class LimitedProductScheduler {
 
-    private final ProductsService productsService;
+    private final LimitedReleaseService limitedReleaseService;
+
+    @Value("${limited.release.prewarm-seconds:5}")
+    private long prewarmSeconds;
+
+    @Value("${limited.release.lookahead-minutes:10}")
+    private long lookaheadMinutes;
+
+    private final DelayQueue<ReleaseTask> queue = new DelayQueue<>();
+    private final Set<LocalDateTime> scheduled = ConcurrentHashMap.newKeySet(); // 예약되어 아직 공개되지 않은 시각
+    private final Map<LocalDateTime, LimitedReleaseService.StagedRelease> staged = new ConcurrentHashMap<>();
+    private final ExecutorService releaseExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "limited-release");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Thread timer = new Thread(this::runTimer, "limited-release-timer");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int assigned = limitedReleaseService.assignDefaultReleaseTimes();
+        if (assigned > 0) {
+            log.info("[한정상품 공개] 공개 시각이 없는 옵션 {}개에 기본 공개 시각 지정", assigned);
+        }
+        timer.setDaemon(true);
+        timer.start();
+        refresh();
+    }
+
+    /**
+     * 공개 시각 예약 (트랜잭션 안이면 커밋 후 예약, lookahead 밖의 시각은 주기 조회에서 예약)
+     */
+    public void register(LocalDateTime releaseAt) {
+        if (releaseAt == null || releaseAt.isAfter(LocalDateTime.now().plusMinutes(lookaheadMinutes))) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(releaseAt);
+                }
+            });
+            return;
+        }
+        enqueue(releaseAt);
+    }
+
+    /**
+     * 곧 도래할 공개 시각을 예약하고, 지나쳤는데 공개되지 않은 옵션은 바로 공개
+     */
+    @Scheduled(fixedDelayString = "${limited.release.refresh-interval-ms:60000}",
+            initialDelayString = "${limited.release.refresh-interval-ms:60000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<LocalDateTime> releaseTimes = limitedReleaseService.findReleaseTimesUntil(now.plusMinutes(lookaheadMinutes));
+            LocalDateTime overdue = null;
+            for (LocalDateTime releaseAt : releaseTimes) {
+                if (releaseAt.isAfter(now)) {
+                    enqueue(releaseAt);
+                } else {
+                    overdue = releaseAt; // 지난 시각은 가장 늦은 시각 한 번으로 모두 공개
+                }
+            }
+            if (overdue != null && enqueue(overdue)) {
+                log.warn("[한정상품 공개] 지난 공개 시각 즉시 공개: {} 이전", overdue);
+            }
+        } catch (Exception e) {
+            log.error("[한정상품 공개] 공개 예정 조회 실패", e);
+        }
+    }
+
+    private boolean enqueue(LocalDateTime releaseAt) {
+        if (!scheduled.add(releaseAt)) {
+            return false; // 이미 예약됨
+        }
+        long releaseMillis = releaseAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long prepareMillis = releaseMillis - TimeUnit.SECONDS.toMillis(prewarmSeconds);
+        if (prepareMillis > System.currentTimeMillis()) {
+            queue.put(new ReleaseTask(releaseAt, Phase.PREPARE, prepareMillis));
+        }
+        queue.put(new ReleaseTask(releaseAt, Phase.RELEASE, releaseMillis));
+        log.info("[한정상품 공개] 공개 예약: {}", releaseAt);
+        return true;
+    }
+
+    // 시각이 된 작업을 꺼내 실행 스레드로 넘긴다 (준비/공개가 오래 걸려도 다음 시각이 밀리지 않도록)
+    private void runTimer() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ReleaseTask task = queue.take();
+                releaseExecutor.execute(() -> {
+                    if (task.phase() == Phase.PREPARE) {
+                        prepare(task.releaseAt());
+                    } else {
+                        release(task.releaseAt());
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("[한정상품 공개] 작업 실행 실패", e);
+            }
+        }
+    }
+
+    private void prepare(LocalDateTime releaseAt) {
+        try {
+            LimitedReleaseService.StagedRelease prepared = limitedReleaseService.stage(releaseAt);
+            if (scheduled.contains(releaseAt)) {
+                staged.put(releaseAt, prepared);
+            }
+        } catch (Exception e) {
+            // 준비에 실패해도 공개는 예정대로 진행 (파생 데이터는 outbox 이벤트로 반영)
+            log.error("[한정상품 공개] 준비 실패: releaseAt = {}", releaseAt, e);
+        }
+    }
+
+    private void release(LocalDateTime releaseAt) {
+        LimitedReleaseService.StagedRelease prepared = staged.remove(releaseAt);
+        try {
+            limitedReleaseService.release(prepared != null ? prepared : LimitedReleaseService.StagedRelease.empty(releaseAt));
+        } catch (Exception e) {
+            // 예약을 풀어 두면 다음 주기 조회에서 지난 시각으로 다시 공개
+            log.error("[한정상품 공개] 공개 실패: releaseAt = {}", releaseAt, e);
+        } finally {
+            scheduled.remove(releaseAt);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.interrupt();
+        releaseExecutor.shutdown();
+    }
+
+    private enum Phase {
+        PREPARE, RELEASE
+    }
+
+    private record ReleaseTask(LocalDateTime releaseAt, Phase phase, long fireAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
 
-    @Scheduled(cron = "0 17 16 * * ?") // 매일 오후 3시 30분 실행
-    public void scheduleLimitedProductsVisibilityUpdate() {
-        log.info("[한정상품 공개]--------스케줄러 실행");
-        productsService.updateLimitedProductsVisibility();
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAtMillis, ((ReleaseTask) other).fireAtMillis);
+        }
     }
 }
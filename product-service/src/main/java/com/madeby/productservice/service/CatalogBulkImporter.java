@@ -0,0 +1,153 @@
+package com.madeby.productservice.service;
+
+import com.madeby.productservice.dto.ProductInfoDto;
+import com.madeby.productservice.dto.ProductsDto;
+import com.madeby.productservice.elasticsearch.ProductElasticsearchRepository;
+import com.madeby.productservice.entity.ProductDocument;
+import com.madeby.productservice.entity.ProductInfoDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상품 대량 적재 (부하 테스트용 초기 데이터)
+ * registerNewProduct를 건별로 호출하는 대신 chunk 단위로
+ * 1. DB : id를 미리 할당해 JDBC batch insert (IDENTITY 전략은 Hibernate batch insert가 불가능)
+ * 2. Redis : RBatch 파이프라인으로 재고 적재
+ * 3. Elasticsearch : saveAll(bulk API)로 색인
+ * 을 처리한다. 여러 스레드에서 동시에 호출할 수 있다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogBulkImporter {
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (id, name, image, description, category, is_visible, created_at, modified_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_INFO_SQL =
+            "INSERT INTO product_info (id, product_id, price, stock, size, color, is_limited, is_visible, release_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedissonClient redissonClient;
+    private final StockShardService stockShardService;
+    private final LimitedReleaseService limitedReleaseService;
+    private final ProductElasticsearchRepository productElasticsearchRepository;
+
+    private final AtomicLong productIdSequence = new AtomicLong();
+    private final AtomicLong productInfoIdSequence = new AtomicLong();
+
+    /**
+     * 적재 시작 전 현재 최대 id로 시퀀스 초기화
+     */
+    public void prepare() {
+        productIdSequence.set(maxId("products"));
+        productInfoIdSequence.set(maxId("product_info"));
+    }
+
+    /**
+     * 상품 chunk 적재
+     *
+     * @return 적재한 상품 수
+     */
+    public int importChunk(List<ProductsDto> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // 1. id 블록 할당 (스레드 간 겹치지 않도록 한 번에 예약)
+        int infoCount = chunk.stream().mapToInt(product -> product.getProductInfos().size()).sum();
+        long productId = productIdSequence.getAndAdd(chunk.size());
+        long productInfoId = productInfoIdSequence.getAndAdd(infoCount);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> productRows = new ArrayList<>(chunk.size());
+        List<Object[]> infoRows = new ArrayList<>(infoCount);
+        for (ProductsDto product : chunk) {
+            product.setId(++productId);
+            productRows.add(new Object[]{
+                    product.getId(), product.getName(), product.getImage(), product.getDescription(),
+                    product.getCategory(), true, now, now
+            });
+            for (ProductInfoDto info : product.getProductInfos()) {
+                info.setId(++productInfoId);
+                info.setProductId(product.getId());
+                if (info.isLimited()) {
+                    info.setVisible(false); // 한정 상품은 오픈 전까지 비노출
+                    info.setReleaseAt(limitedReleaseService.resolveReleaseAt(info.getReleaseAt()));
+                }
+                infoRows.add(new Object[]{
+                        info.getId(), product.getId(), info.getPrice(), info.getStock(),
+                        info.getSize(), info.getColor(), info.isLimited(), info.isVisible(),
+                        info.getReleaseAt() == null ? null : Timestamp.valueOf(info.getReleaseAt())
+                });
+            }
+        }
+
+        // 2. DB batch insert (chunk 단위 트랜잭션)
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, productRows);
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_INFO_SQL, infoRows);
+        });
+
+        // 3. Redis 재고 적재 (파이프라인 1회)
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        for (ProductsDto product : chunk) {
+            for (ProductInfoDto info : product.getProductInfos()) {
+                stockShardService.appendSeed(batch, info.getId(), info.getStock(), info.isLimited(), 0);
+            }
+        }
+        batch.execute();
+
+        // 4. Elasticsearch bulk 색인
+        try {
+            productElasticsearchRepository.saveAll(chunk.stream().map(this::toDocument).toList());
+        } catch (Exception e) {
+            log.error("Elasticsearch bulk 색인 실패: {}건 (productId {} ~ {})",
+                    chunk.size(), chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId(), e);
+        }
+
+        return chunk.size();
+    }
+
+    private ProductDocument toDocument(ProductsDto product) {
+        return ProductDocument.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .nameSuggest(product.getName())
+                .category(product.getCategory())
+                .description(product.getDescription())
+                .image(product.getImage())
+                .isVisible(true)
+                .productInfos(product.getProductInfos().stream()
+                        .map(info -> ProductInfoDocument.builder()
+                                .id(info.getId())
+                                .price(info.getPrice())
+                                .stock(info.getStock())
+                                .size(info.getSize())
+                                .color(info.getColor())
+                                .isLimited(info.isLimited())
+                                .isVisible(info.isVisible())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+}
@@ -0,0 +1,193 @@
+package com.madeby.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madeby.productservice.dto.ProductInfoDto;
+import com.madeby.productservice.dto.ProductsDto;
+import com.madeby.productservice.elasticsearch.ProductIndexQueue;
+import com.madeby.productservice.entity.ProductDocument;
+import com.madeby.productservice.entity.ProductInfo;
+import com.madeby.productservice.entity.ProductInfoDocument;
+import com.madeby.productservice.entity.Products;
+import com.madeby.productservice.repository.ProductInfoRepository;
+import com.madeby.productservice.repository.ProductsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한정 상품 공개
+ * 공개 시각에 몰리는 트래픽에 대비해 두 단계로 나누어 처리한다.
+ * 1. stage (공개 몇 초 전) : 공개될 옵션을 조회해 공개 후의 Redis 상품 정보, 상세 캐시, Elasticsearch 문서를 미리 만들어 둔다.
+ * 2. release (공개 시각) : UPDATE 한 번으로 DB를 공개 상태로 바꾸고, 준비해 둔 값을 MSET/캐시 저장/bulk 색인으로 바로 반영한다.
+ * 준비 이후에 추가된 옵션도 같은 UPDATE로 공개되며, outbox 이벤트로 나머지 파생 데이터가 맞춰진다.
+ * 옵션마다 공개 시각(releaseAt)을 가지며, 공개 시각을 지정하지 않은 옵션은 기본 공개 시각(default-cron)의 다음 회차에 공개된다.
+ * 공개 시점 관리는 LimitedProductScheduler가 한다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LimitedReleaseService {
+
+    private static final String PRODUCT_INFO_REDIS_KEY_PREFIX = "product_info:";
+
+    private final ProductInfoRepository productInfoRepository;
+    private final ProductsRepository productsRepository;
+    private final ProductOutboxService productOutboxService;
+    private final ProductIndexQueue productIndexQueue;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${limited.release.default-cron:0 17 16 * * ?}")
+    private String defaultReleaseCron; // 공개 시각 미지정 옵션은 매일 오후 4시 17분 공개
+
+    /**
+     * 옵션에 저장할 공개 시각 (지정하지 않았으면 기본 공개 시각의 다음 회차)
+     */
+    public LocalDateTime resolveReleaseAt(LocalDateTime requested) {
+        if (requested != null) {
+            return requested;
+        }
+        return CronExpression.parse(defaultReleaseCron).next(LocalDateTime.now());
+    }
+
+    /**
+     * 공개 시각이 없는 미공개 한정 옵션(공개 시각 도입 전 데이터)에 기본 공개 시각 지정
+     */
+    @Transactional
+    public int assignDefaultReleaseTimes() {
+        return productInfoRepository.assignReleaseAt(resolveReleaseAt(null));
+    }
+
+    /**
+     * until까지 공개 예정인 공개 시각 목록 (이미 지났는데 공개되지 않은 시각 포함)
+     */
+    @Transactional(readOnly = true)
+    public List<LocalDateTime> findReleaseTimesUntil(LocalDateTime until) {
+        return productInfoRepository.findReleaseTimesUntil(until);
+    }
+
+    /**
+     * 공개 준비 : releaseAt에 공개될 옵션이 공개된 뒤의 모습을 미리 만든다. (DB는 변경하지 않음)
+     */
+    @Transactional(readOnly = true)
+    public StagedRelease stage(LocalDateTime releaseAt) {
+        List<Long> productIds = productInfoRepository.findProductIdsToRelease(releaseAt);
+        Map<String, Object> productInfos = new HashMap<>();
+        Map<String, ProductsDto> details = new HashMap<>();
+        List<ProductDocument> documents = new ArrayList<>();
+
+        for (Products product : productIds.isEmpty() ? List.<Products>of() : productsRepository.findWithProductInfosByIdIn(productIds)) {
+            List<ProductInfoDto> visibleInfos = new ArrayList<>();
+            for (ProductInfo info : product.getProductInfos()) {
+                ProductInfoDto dto = ProductInfoDto.fromEntity(info);
+                if (isReleased(info, releaseAt)) {
+                    dto.setVisible(true);
+                    try {
+                        productInfos.put(PRODUCT_INFO_REDIS_KEY_PREFIX + info.getId(), objectMapper.writeValueAsString(dto));
+                    } catch (Exception e) {
+                        log.error("Redis 상품 정보 변환 실패: productInfoId = {}", info.getId(), e);
+                    }
+                }
+                if (dto.isVisible()) {
+                    visibleInfos.add(dto);
+                }
+            }
+
+            ProductDocument document = ProductDocument.fromEntity(product);
+            for (ProductInfoDocument infoDocument : document.getProductInfos()) {
+                if (productInfos.containsKey(PRODUCT_INFO_REDIS_KEY_PREFIX + infoDocument.getId())) {
+                    infoDocument.setVisible(true);
+                }
+            }
+            documents.add(document);
+
+            // 상품 상세 캐시와 같은 모양 (노출 상품의 노출 옵션만)
+            if (product.isVisible()) {
+                details.put(String.valueOf(product.getId()), ProductsDto.builder()
+                        .id(product.getId())
+                        .name(product.getName())
+                        .description(product.getDescription())
+                        .image(product.getImage())
+                        .category(product.getCategory())
+                        .productInfos(visibleInfos)
+                        .build());
+            }
+        }
+        log.info("한정 상품 공개 준비: releaseAt = {}, 상품 {}개, 옵션 {}개", releaseAt, productIds.size(), productInfos.size());
+        return new StagedRelease(releaseAt, productInfos, details, documents);
+    }
+
+    /**
+     * 공개 : DB 일괄 UPDATE 후 준비해 둔 파생 데이터를 바로 반영한다.
+     *
+     * @return 공개한 옵션 수 (다른 인스턴스가 이미 공개했으면 0)
+     */
+    public int release(StagedRelease staged) {
+        long start = System.currentTimeMillis();
+        Integer released = transactionTemplate.execute(status -> {
+            // 준비 이후 추가된 옵션도 포함하도록 UPDATE 직전에 대상 상품을 다시 조회
+            List<Long> productIds = productInfoRepository.findProductIdsToRelease(staged.releaseAt());
+            int rows = productInfoRepository.releaseLimited(staged.releaseAt());
+            if (rows > 0) {
+                productIds.forEach(productOutboxService::recordUpsert);
+            }
+            return rows;
+        });
+        if (released == null || released == 0) {
+            return 0;
+        }
+
+        // 1. Redis 상품 정보 : MSET 1회
+        if (!staged.productInfos().isEmpty()) {
+            try {
+                redisTemplate.opsForValue().multiSet(staged.productInfos());
+            } catch (Exception e) {
+                log.error("Redis 상품 정보 일괄 반영 실패 (outbox 이벤트로 재반영)", e);
+            }
+        }
+
+        // 2. 상품 상세 캐시 : 공개 직후 첫 요청부터 캐시에서 응답
+        Cache detailCache = cacheManager.getCache("productDetail");
+        if (detailCache != null) {
+            staged.details().forEach(detailCache::put);
+        }
+
+        // 3. Elasticsearch : 색인 큐 주기를 기다리지 않고 바로 bulk 반영
+        staged.documents().forEach(productIndexQueue::save);
+        productIndexQueue.flush();
+
+        log.info("한정 상품 공개 완료: releaseAt = {}, 옵션 {}개, {}ms",
+                staged.releaseAt(), released, System.currentTimeMillis() - start);
+        return released;
+    }
+
+    private boolean isReleased(ProductInfo info, LocalDateTime releaseAt) {
+        return info.isLimited() && !info.isVisible()
+                && info.getReleaseAt() != null && !info.getReleaseAt().isAfter(releaseAt);
+    }
+
+    public record StagedRelease(LocalDateTime releaseAt,
+                                Map<String, Object> productInfos,    // product_info:{id} → 공개 후 JSON
+                                Map<String, ProductsDto> details,    // productDetail 캐시 키 → 공개 후 상세
+                                List<ProductDocument> documents) {   // 공개 후 Elasticsearch 문서
+
+        public static StagedRelease empty(LocalDateTime releaseAt) {
+            return new StagedRelease(releaseAt, Map.of(), Map.of(), List.of());
+        }
+    }
+}
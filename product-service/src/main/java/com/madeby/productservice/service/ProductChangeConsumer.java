@@ -0,0 +1,146 @@
+package com.madeby.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madeBy.shared.events.ProductChangedEvent;
+import com.madeby.productservice.cache.ProductCacheIndex;
+import com.madeby.productservice.dto.ProductInfoDto;
+import com.madeby.productservice.elasticsearch.ProductIndexQueue;
+import com.madeby.productservice.entity.ProductDocument;
+import com.madeby.productservice.entity.ProductInfo;
+import com.madeby.productservice.entity.Products;
+import com.madeby.productservice.repository.ProductsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 변경 이벤트 소비자
+ * - 파생 데이터(Elasticsearch 문서, Redis product_info:*, 상품 캐시) : 서비스 전체에서 한 번만 처리 (공용 consumer group)
+ *   상품 캐시는 ProductCacheIndex로 변경된 상품이 들어 있는 항목만 삭제하고,
+ *   L2(Redis)에서 삭제하면 LayeredCacheManager가 pub/sub으로 모든 인스턴스의 L1을 비운다.
+ * - 검색 결과 없음 캐시 : 이벤트를 처리한 인스턴스가 Redis pub/sub으로 모든 인스턴스에 알린다
+ * - 재고 변경(STOCK_CHANGED) : 한정 판매 중에도 주기적으로 들어오므로 검색 문서와 product_info만 갱신하고 캐시는 비우지 않는다.
+ *   (목록/검색 캐시의 재고는 TTL로, 상품 상세는 Redis 재고를 덧씌워 반영)
+ * 이벤트의 내용이 아닌 현재 DB 상태를 다시 읽어 반영하므로, 중복/역순 수신에도 최종 결과가 같다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductChangeConsumer {
+
+    private static final String PRODUCT_INFO_REDIS_KEY_PREFIX = "product_info:";
+
+    private final ProductsRepository productsRepository;
+    private final ProductIndexQueue productIndexQueue;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final ProductCacheIndex productCacheIndex;
+    private final SearchNegativeCache searchNegativeCache;
+
+    @Value("${search.indexer.flush-interval-ms:500}")
+    private long indexFlushIntervalMillis;
+
+    private final ScheduledExecutorService delayedEvictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "product-cache-delayed-evict");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @KafkaListener(topics = ProductChangedEvent.TOPIC, groupId = "product-service-indexer")
+    @Transactional(readOnly = true)
+    public void syncDerivedViews(ProductChangedEvent event) {
+        boolean stockOnly = ProductChangedEvent.STOCK_CHANGED.equals(event.getType());
+        Optional<Products> product = productsRepository.findWithProductInfosById(event.getProductId());
+        if (product.isEmpty() && stockOnly) {
+            return; // 삭제는 DELETED 이벤트로 반영
+        }
+        if (product.isEmpty()) {
+            // 삭제된 상품 : 문서와 옵션 캐시 제거
+            productIndexQueue.delete(event.getProductId());
+            if (event.getProductInfoIds() != null && !event.getProductInfoIds().isEmpty()) {
+                redisTemplate.delete(event.getProductInfoIds().stream()
+                        .map(id -> PRODUCT_INFO_REDIS_KEY_PREFIX + id)
+                        .toList());
+            }
+            evictProductCaches(event);
+            log.debug("상품 삭제 반영: productId = {}", event.getProductId());
+            return;
+        }
+
+        productIndexQueue.save(ProductDocument.fromEntity(product.get()));
+
+        Map<String, Object> productInfos = new HashMap<>();
+        for (ProductInfo info : product.get().getProductInfos()) {
+            try {
+                productInfos.put(PRODUCT_INFO_REDIS_KEY_PREFIX + info.getId(),
+                        objectMapper.writeValueAsString(ProductInfoDto.fromEntity(info)));
+            } catch (Exception e) {
+                log.error("Redis 상품 정보 변환 실패: productInfoId = {}", info.getId(), e);
+            }
+        }
+        if (!productInfos.isEmpty()) {
+            redisTemplate.opsForValue().multiSet(productInfos);
+        }
+        if (stockOnly) {
+            log.debug("상품 재고 반영: productId = {}", event.getProductId());
+            return;
+        }
+        evictProductCaches(event);
+        log.debug("상품 변경 반영: productId = {}", event.getProductId());
+    }
+
+    private void evictProductCaches(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        evictIndexedEntries(productId);
+        searchNegativeCache.clearAll();
+
+        // 신규 상품은 어느 목록 페이지/검색 결과에 들어갈지 알 수 없으므로 목록/검색 캐시를 비운다
+        if (ProductChangedEvent.CREATED.equals(event.getType())) {
+            clear("products");
+            clear("productSearch");
+        }
+
+        // Elasticsearch 반영(bulk flush) 전에 이전 문서로 다시 채워진 검색 캐시를 한 번 더 삭제
+        delayedEvictor.schedule(() -> evictIndexedEntries(productId), indexFlushIntervalMillis * 2, TimeUnit.MILLISECONDS);
+    }
+
+    private void evictIndexedEntries(Long productId) {
+        try {
+            for (ProductCacheIndex.Entry entry : productCacheIndex.removeEntries(productId)) {
+                Cache cache = cacheManager.getCache(entry.cacheName());
+                if (cache != null) {
+                    cache.evict(entry.key());
+                }
+            }
+        } catch (Exception e) {
+            log.error("상품 캐시 삭제 실패: productId = {}", productId, e);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delayedEvictor.shutdown();
+    }
+}
@@ -0,0 +1,201 @@
+package com.madeby.productservice.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.StatsAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.ChildScoreMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.madeBy.shared.exception.MadeByErrorCode;
+import com.madeBy.shared.exception.MadeByException;
+import com.madeby.productservice.dto.ProductFacetsDto;
+import com.madeby.productservice.dto.ProductFilterCondition;
+import com.madeby.productservice.dto.ProductFilterSearchDto;
+import com.madeby.productservice.dto.ProductsWithoutInfoDto;
+import com.madeby.productservice.dto.SearchCursor;
+import com.madeby.productservice.entity.ProductDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 상품 필터 검색 (카테고리 / 가격 범위 / 색상 / 사이즈)
+ * 필터와 항목별 상품 수(facet)를 Elasticsearch 쿼리 한 번으로 계산한다.
+ * - 옵션 조건(가격/색상/사이즈)은 nested 쿼리로 같은 옵션 하나가 모두 만족하는 상품만 찾는다.
+ * - 색상/사이즈 facet은 조건에 맞는 옵션만 집계하고, reverse_nested로 옵션 수가 아닌 상품 수를 센다.
+ * 페이지는 이름 검색과 같은 search_after 커서를 사용하며, facet은 첫 페이지에서만 계산한다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductFilterSearchService {
+
+    private static final String INFOS = "productInfos";
+    private static final int FACET_SIZE = 50;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    public ProductFilterSearchDto search(ProductFilterCondition condition, String cursor, int size) {
+        if (condition.getMinPrice() != null && condition.getMaxPrice() != null
+                && condition.getMinPrice().compareTo(condition.getMaxPrice()) > 0) {
+            throw new MadeByException(MadeByErrorCode.OUT_OF_RANGE, "최저 가격이 최고 가격보다 클 수 없습니다.");
+        }
+        SearchCursor searchCursor = SearchCursor.decode(cursor);
+        if (searchCursor != null && !searchCursor.isElasticsearch()) {
+            throw new MadeByException(MadeByErrorCode.INVALID_REQUEST, "잘못된 검색 커서입니다.");
+        }
+
+        Query optionFilter = optionFilter(condition);
+        NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                .withQuery(productQuery(condition, optionFilter))
+                .withSort(so -> so.score(sc -> sc.order(SortOrder.Desc)))
+                .withSort(so -> so.field(f -> f.field("id").order(SortOrder.Desc)))
+                .withMaxResults(size + 1)
+                .withTrackTotalHits(false);
+        if (searchCursor != null) {
+            queryBuilder.withSearchAfter(List.of(searchCursor.score(), searchCursor.id()));
+        } else {
+            queryBuilder
+                    .withAggregation("categories", Aggregation.of(a -> a
+                            .terms(t -> t.field("category").size(FACET_SIZE))))
+                    .withAggregation("options", Aggregation.of(a -> a
+                            .nested(n -> n.path(INFOS))
+                            .aggregations("matching", Aggregation.of(m -> m
+                                    .filter(optionFilter)
+                                    .aggregations("colors", termsPerProduct(INFOS + ".color"))
+                                    .aggregations("sizes", termsPerProduct(INFOS + ".size"))
+                                    .aggregations("price", Aggregation.of(p -> p
+                                            .stats(s -> s.field(INFOS + ".price"))))))));
+        }
+
+        SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(queryBuilder.build(), ProductDocument.class);
+        List<SearchHit<ProductDocument>> hits = searchHits.getSearchHits();
+
+        boolean hasNext = hits.size() > size;
+        List<SearchHit<ProductDocument>> page = hasNext ? hits.subList(0, size) : hits;
+        List<ProductsWithoutInfoDto> content = page.stream()
+                .map(SearchHit::getContent)
+                .map(product -> new ProductsWithoutInfoDto(
+                        product.getId(),
+                        product.getName(),
+                        product.getImage(),
+                        product.getDescription(),
+                        product.getCategory()
+                ))
+                .toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            SearchHit<ProductDocument> last = page.get(page.size() - 1);
+            nextCursor = SearchCursor.ofElasticsearch(last.getScore(), last.getContent().getId());
+        }
+        ProductFacetsDto facets = searchCursor == null ? toFacets(searchHits) : null;
+        return new ProductFilterSearchDto(content, hasNext, nextCursor, facets);
+    }
+
+    // 상품 단위 조건 : 상품명(점수 계산) + 노출 여부/카테고리/옵션 조건(필터 컨텍스트, 점수 계산 없음)
+    private Query productQuery(ProductFilterCondition condition, Query optionFilter) {
+        return Query.of(q -> q.bool(b -> {
+            if (condition.hasName()) {
+                b.must(m -> m.match(mt -> mt.field("name").query(condition.getName().trim())));
+            }
+            b.filter(f -> f.term(t -> t.field("isVisible").value(true)));
+            if (ProductFilterCondition.hasValues(condition.getCategories())) {
+                b.filter(f -> f.terms(t -> t.field("category")
+                        .terms(v -> v.value(toFieldValues(condition.getCategories())))));
+            }
+            if (condition.hasOptionFilter()) {
+                b.filter(f -> f.nested(n -> n.path(INFOS).query(optionFilter).scoreMode(ChildScoreMode.None)));
+            }
+            return b;
+        }));
+    }
+
+    // 옵션 단위 조건 : 노출된 옵션 중 가격/색상/사이즈를 모두 만족하는 옵션
+    private Query optionFilter(ProductFilterCondition condition) {
+        return Query.of(q -> q.bool(b -> {
+            b.filter(f -> f.term(t -> t.field(INFOS + ".isVisible").value(true)));
+            if (condition.getMinPrice() != null || condition.getMaxPrice() != null) {
+                b.filter(f -> f.range(r -> {
+                    r.field(INFOS + ".price");
+                    if (condition.getMinPrice() != null) {
+                        r.gte(JsonData.of(condition.getMinPrice().doubleValue()));
+                    }
+                    if (condition.getMaxPrice() != null) {
+                        r.lte(JsonData.of(condition.getMaxPrice().doubleValue()));
+                    }
+                    return r;
+                }));
+            }
+            if (ProductFilterCondition.hasValues(condition.getColors())) {
+                b.filter(f -> f.terms(t -> t.field(INFOS + ".color")
+                        .terms(v -> v.value(toFieldValues(condition.getColors())))));
+            }
+            if (ProductFilterCondition.hasValues(condition.getSizes())) {
+                b.filter(f -> f.terms(t -> t.field(INFOS + ".size")
+                        .terms(v -> v.value(toFieldValues(condition.getSizes())))));
+            }
+            return b;
+        }));
+    }
+
+    // 옵션 필드 값별로 집계하되, 건수는 옵션을 가진 상품 수로 센다
+    private Aggregation termsPerProduct(String field) {
+        return Aggregation.of(a -> a
+                .terms(t -> t.field(field).size(FACET_SIZE))
+                .aggregations("products", Aggregation.of(r -> r.reverseNested(rn -> rn))));
+    }
+
+    private ProductFacetsDto toFacets(SearchHits<ProductDocument> searchHits) {
+        if (!(searchHits.getAggregations() instanceof ElasticsearchAggregations aggregations)) {
+            return null;
+        }
+        Map<String, ElasticsearchAggregation> byName = aggregations.aggregationsAsMap();
+
+        List<ProductFacetsDto.FacetCount> categories = byName.get("categories").aggregation().getAggregate()
+                .sterms().buckets().array().stream()
+                .map(bucket -> new ProductFacetsDto.FacetCount(bucket.key().stringValue(), bucket.docCount()))
+                .toList();
+
+        Map<String, Aggregate> matching = byName.get("options").aggregation().getAggregate()
+                .nested().aggregations().get("matching")
+                .filter().aggregations();
+        StatsAggregate price = matching.get("price").stats();
+
+        return new ProductFacetsDto(
+                categories,
+                perProductCounts(matching.get("colors")),
+                perProductCounts(matching.get("sizes")),
+                price.count() == 0 ? null : price.min(),
+                price.count() == 0 ? null : price.max()
+        );
+    }
+
+    private List<ProductFacetsDto.FacetCount> perProductCounts(Aggregate terms) {
+        return terms.sterms().buckets().array().stream()
+                .map(this::toPerProductCount)
+                .toList();
+    }
+
+    private ProductFacetsDto.FacetCount toPerProductCount(StringTermsBucket bucket) {
+        long products = bucket.aggregations().get("products").reverseNested().docCount();
+        return new ProductFacetsDto.FacetCount(bucket.key().stringValue(), products);
+    }
+
+    private List<FieldValue> toFieldValues(List<String> values) {
+        return values.stream().map(FieldValue::of).toList();
+    }
+}
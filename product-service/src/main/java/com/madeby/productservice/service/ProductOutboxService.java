@@ -0,0 +1,140 @@
+package com.madeby.productservice.service;
+
+import com.madeBy.shared.events.ProductChangedEvent;
+import com.madeby.productservice.entity.ProductOutbox;
+import com.madeby.productservice.repository.ProductInfoRepository;
+import com.madeby.productservice.repository.ProductOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 상품 변경 outbox
+ * 상품/옵션 변경과 같은 트랜잭션에서 product_outbox에 기록하고,
+ * relay가 주기적으로 미발행 행을 Kafka(product-changed-topic)로 묶어서 발행한다.
+ * Elasticsearch, Redis product_info, 로컬 캐시는 ProductChangeConsumer가 이벤트를 받아 갱신한다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductOutboxService {
+
+    private static final String RELAY_LOCK_KEY = "product_outbox_relay_lock";
+
+    private final ProductOutboxRepository productOutboxRepository;
+    private final ProductInfoRepository productInfoRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final RedissonClient redissonClient;
+
+    /**
+     * 상품 등록 기록 (호출 측 트랜잭션 안에서만 사용)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreate(Long productId) {
+        save(productId, ProductChangedEvent.CREATED, null);
+    }
+
+    /**
+     * 상품/옵션 수정 기록 (호출 측 트랜잭션 안에서만 사용)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpsert(Long productId) {
+        save(productId, ProductChangedEvent.UPSERTED, null);
+    }
+
+    /**
+     * 상품 삭제 기록 (호출 측 트랜잭션 안에서만 사용)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDelete(Long productId, List<Long> productInfoIds) {
+        String ids = productInfoIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        save(productId, ProductChangedEvent.DELETED, ids);
+    }
+
+    /**
+     * 재고 변경 기록 : write-behind로 재고가 바뀐 옵션의 상품을 재고 변경으로 기록한다.
+     * (검색 문서, Redis product_info의 재고를 DB와 맞추기 위함, 상품 캐시는 비우지 않음)
+     */
+    @Transactional
+    public void recordStockChanges(Collection<Long> productInfoIds) {
+        for (Long productId : productInfoRepository.findProductIdsByIdIn(productInfoIds)) {
+            save(productId, ProductChangedEvent.STOCK_CHANGED, null);
+        }
+    }
+
+    private void save(Long productId, String type, String productInfoIds) {
+        productOutboxRepository.save(ProductOutbox.builder()
+                .productId(productId)
+                .type(type)
+                .productInfoIds(productInfoIds)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * 미발행 outbox를 Kafka로 발행 (여러 인스턴스 중 하나만 실행)
+     */
+    @Scheduled(fixedDelayString = "${product.outbox.relay-interval-ms:200}")
+    @Transactional
+    public void relay() {
+        RLock lock = redissonClient.getLock(RELAY_LOCK_KEY);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            List<ProductOutbox> rows = productOutboxRepository.findTop500ByPublishedFalseOrderByIdAsc();
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            // 한 번에 보내고 전송 완료를 기다린 뒤 발행 처리 (상품 ID를 키로 사용해 같은 상품은 순서 보장)
+            List<CompletableFuture<?>> futures = new ArrayList<>(rows.size());
+            for (ProductOutbox row : rows) {
+                futures.add(kafkaTemplate.send(ProductChangedEvent.TOPIC, String.valueOf(row.getProductId()), toEvent(row)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+            productOutboxRepository.markPublished(rows.stream().map(ProductOutbox::getId).toList());
+            log.debug("상품 변경 이벤트 발행: {}건", rows.size());
+        } catch (Exception e) {
+            // 발행 처리하지 않았으므로 다음 주기에 다시 발행 (소비자는 멱등 처리)
+            log.error("상품 변경 이벤트 발행 실패", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 발행 완료 후 하루가 지난 outbox 정리
+     */
+    @Scheduled(cron = "0 0 * * * *")
+    @Transactional
+    public void purgePublished() {
+        int deleted = productOutboxRepository.deletePublishedBefore(LocalDateTime.now().minusDays(1));
+        if (deleted > 0) {
+            log.info("발행 완료 outbox 정리: {}건", deleted);
+        }
+    }
+
+    private ProductChangedEvent toEvent(ProductOutbox row) {
+        List<Long> productInfoIds = row.getProductInfoIds() == null || row.getProductInfoIds().isBlank()
+                ? List.of()
+                : Arrays.stream(row.getProductInfoIds().split(",")).map(Long::valueOf).toList();
+        return new ProductChangedEvent(row.getId(), row.getProductId(), row.getType(), productInfoIds);
+    }
+}
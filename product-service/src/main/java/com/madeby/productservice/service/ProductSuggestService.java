@@ -0,0 +1,60 @@
+package com.madeby.productservice.service;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import com.madeby.productservice.dto.ProductSuggestDto;
+import com.madeby.productservice.entity.ProductDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 상품명 자동완성
+ * nameSuggest(search_as_you_type) 필드에 bool_prefix 쿼리를 보내고, id/name만 가져온다.
+ * 같은 접두어 요청은 productSuggest 캐시(1분 TTL의 인스턴스 로컬 Caffeine, Redis에 저장하지 않음)에서 바로 응답하고,
+ * 캐시가 비었을 때 인스턴스 안에서 동시에 들어온 요청은 하나만 조회한다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSuggestService {
+
+    private static final String[] SUGGEST_FIELDS = {"nameSuggest", "nameSuggest._2gram", "nameSuggest._3gram"};
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Cacheable(value = "productSuggest", key = "#prefix.trim().toLowerCase() + ':' + #size", sync = true)
+    public List<ProductSuggestDto> suggest(String prefix, int size) {
+        String query = prefix.trim();
+        NativeQuery nativeQuery = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .must(m -> m.multiMatch(mm -> mm
+                                .query(query)
+                                .type(TextQueryType.BoolPrefix)
+                                .fields(List.of(SUGGEST_FIELDS))))
+                        .filter(f -> f.term(t -> t.field("isVisible").value(true)))))
+                .withSourceFilter(new FetchSourceFilterBuilder().withIncludes("id", "name").build())
+                .withMaxResults(size * 2) // 같은 이름 상품 제거 후에도 size개를 채우기 위해 여유 있게 조회
+                .withTrackTotalHits(false)
+                .build();
+
+        List<ProductSuggestDto> suggestions = new ArrayList<>(size);
+        Set<String> names = new LinkedHashSet<>();
+        for (SearchHit<ProductDocument> hit : elasticsearchOperations.search(nativeQuery, ProductDocument.class)) {
+            ProductDocument document = hit.getContent();
+            if (names.add(document.getName()) && suggestions.size() < size) {
+                suggestions.add(new ProductSuggestDto(document.getId(), document.getName()));
+            }
+        }
+        return suggestions;
+    }
+}
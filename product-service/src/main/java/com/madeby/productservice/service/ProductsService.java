@@ -1,37 +1,50 @@
 package com.madeby.productservice.service;
 
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madeBy.shared.events.StockDeltaEvent;
 import com.madeBy.shared.exception.MadeByErrorCode;
 import com.madeBy.shared.exception.MadeByException;
+import com.madeby.productservice.cache.LayeredCache;
+import com.madeby.productservice.dto.CursorSliceDto;
 import com.madeby.productservice.dto.ProductInfoDto;
 import com.madeby.productservice.dto.ProductsDto;
 import com.madeby.productservice.dto.ProductsWithoutInfoDto;
+import com.madeby.productservice.dto.SearchCursor;
+import com.madeby.productservice.elasticsearch.ElasticsearchGuard;
 import com.madeby.productservice.entity.ProductDocument;
 import com.madeby.productservice.entity.ProductInfo;
-import com.madeby.productservice.entity.ProductInfoDocument;
 import com.madeby.productservice.entity.Products;
-import com.madeby.productservice.elasticsearch.ProductElasticsearchRepository;
 import com.madeby.productservice.repository.ProductInfoRepository;
 import com.madeby.productservice.repository.ProductsRepository;
+import com.madeby.productservice.scheduler.LimitedProductScheduler;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RedissonClient;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,15 +53,22 @@ import java.util.stream.Collectors;
 public class ProductsService {
 
     private static final int CACHE_PAGE_LIMIT = 3;  // 캐시할 최대 페이지 수
+    private static final int NGRAM_TOKEN_SIZE = 2;  // MySQL ngram_token_size (기본값)
 
     private final ProductsRepository productsRepository;
     private final ProductInfoRepository productInfoRepository;
     private final RedissonClient redissonClient;
     private final CacheManager cacheManager;
-    private final ObjectMapper objectMapper;
-    private final RedisTemplate redisTemplate;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final ProductElasticsearchRepository productElasticsearchRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchGuard elasticsearchGuard;
+    private final PlatformTransactionManager transactionManager;
+    private final StockShardService stockShardService;
+    private final ProductOutboxService productOutboxService;
+    private final SearchNegativeCache searchNegativeCache;
+    private final LimitedReleaseService limitedReleaseService;
+    private final SoldOutPublisher soldOutPublisher;
+    private final LimitedProductScheduler limitedProductScheduler;
 
 
 
@@ -76,54 +96,26 @@ public class ProductsService {
                 .color(productInfoDto.getColor())
                 .isLimited(true)  // 항상 true로 설정
                 .isVisible(false)  // 기본적으로 false로 설정
+                .releaseAt(limitedReleaseService.resolveReleaseAt(productInfoDto.getReleaseAt())) // 미지정 시 기본 공개 시각
                 .build();
 
         // 4. 저장
         productInfo = productInfoRepository.save(productInfo);
 
-        // 5. Redis에 저장
+        // 5. 변경 기록 (Redis 상품 정보, Elasticsearch는 outbox 이벤트로 반영)
         ProductInfoDto savedDto = ProductInfoDto.fromEntity(productInfo);
-        String redisKey = "product_info:" + productInfo.getId();
-        redisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(productInfoDto));
+        productOutboxService.recordUpsert(productId);
 
+        // 6. Redis에 재고 적재 (한정 상품은 샤딩 대상)
+        stockShardService.seedStock(productInfo.getId(), productInfo.getStock(), true);
+
+        // 7. 공개 시각 예약
+        limitedProductScheduler.register(productInfo.getReleaseAt());
 
         return savedDto;
     }
 
 
-    @Transactional
-    public void updateLimitedProductsVisibility() {
-        List<ProductInfo> limitedProducts = productInfoRepository.findByIsLimitedTrue();
-        for (ProductInfo productInfo : limitedProducts) {
-            // DB 업데이트
-            productInfo.setVisible(true);
-            productInfoRepository.save(productInfo);
-
-            // Redis 업데이트
-            String redisKey = "product_info:" + productInfo.getId();
-            try {
-                // 기존 Redis 데이터 가져오기
-                String jsonStr = (String) redisTemplate.opsForValue().get(redisKey);
-                if (jsonStr != null) {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    Map<String, Object> productMap = objectMapper.readValue(jsonStr, Map.class);
-
-                    // isVisible 값을 true로 업데이트
-                    productMap.put("isVisible", true);
-                    productMap.put("visible", true);
-
-                    // 수정된 데이터를 다시 Redis에 저장
-                    redisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(productMap));
-                    log.info("Redis 상품 정보 업데이트 성공: productInfoId = {}", productInfo.getId());
-                }
-            } catch (Exception e) {
-                log.error("Redis 상품 정보 업데이트 실패: productInfoId = {}, error = {}",
-                        productInfo.getId(), e.getMessage());
-            }
-        }
-        log.info("한정판 상품 업데이트 완료: 총 {}개 상품", limitedProducts.size());
-    }
-
     @Transactional
     public Products registerNewProduct(ProductsDto productsDto) {
         // 1. Products 엔티티 생성
@@ -149,52 +141,38 @@ public class ProductsService {
             // 3. isLimited가 true일 경우, Products의 isVisible을 false로 설정
             if (info.isLimited()) {
                 info.setVisible(false); // 한정판매 제품이면 Products의 isVisible을 false로 설정
+                info.setReleaseAt(limitedReleaseService.resolveReleaseAt(infoDto.getReleaseAt()));
             }
 
             product.getProductInfos().add(info);
-
-            // 4. Redis에 초기 재고 등록
-            String redisKey = "product_stock:" + info.getId();
-            redissonClient.getBucket(redisKey).set(info.getStock());
         }
         Products savedProduct = productsRepository.save(product);
 
-        // Elasticsearch용 문서로 변환 후 저장
-        ProductDocument productDocument = convertToDocument(savedProduct);
-        ProductDocument savedDocument = productElasticsearchRepository.save(productDocument);
+        // 4. Redis에 초기 재고 등록 (저장 후에야 ProductInfo ID가 생성됨)
+        for (ProductInfo info : savedProduct.getProductInfos()) {
+            stockShardService.seedStock(info.getId(), info.getStock(), info.isLimited());
+            if (info.isLimited()) {
+                limitedProductScheduler.register(info.getReleaseAt());
+            }
+        }
+
+        // 5. 변경 기록 (Elasticsearch 색인, Redis 상품 정보, 캐시는 outbox 이벤트로 반영)
+        productOutboxService.recordCreate(savedProduct.getId());
 
         return savedProduct;
     }
 
-    private ProductDocument convertToDocument(Products product) {
-        return ProductDocument.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .category(product.getCategory())
-                .description(product.getDescription())
-                .image(product.getImage())
-                .isVisible(true)
-                .productInfos(product.getProductInfos().stream()
-                        .map(info -> ProductInfoDocument.builder()
-                                .id(info.getId())
-                                .price(info.getPrice())
-                                .stock(info.getStock())
-                                .size(info.getSize())
-                                .color(info.getColor())
-                                .isLimited(info.isLimited())
-                                .isVisible(info.isVisible())
-                                .build())
-                        .toList())
-                .build();
+    public Slice<ProductsWithoutInfoDto> getProducts(Long cursor, int size) {
+        // 깊은 페이지는 재사용률이 낮아 캐시하지 않는다
+        if ((cursor == null ? 10L : cursor) / size > 10) {
+            return readOnly(() -> loadProducts(cursor, size));
+        }
+        return cached("products", "cursor:" + (cursor == null ? "default" : cursor) + ":size:" + size,
+                () -> readOnly(() -> loadProducts(cursor, size)),
+                result -> !result.getContent().isEmpty());
     }
 
-    @Cacheable(
-            value = "products",
-            key = "'cursor:' + (#cursor ?: 'default') + ':size:' + #size",
-            unless = "#result.content.isEmpty() || T(java.lang.Math).floor((#cursor ?: 10) / #size) > 10"
-    )
-    @Transactional(readOnly = true)
-    public Slice<ProductsWithoutInfoDto> getProducts(Long cursor, int size) {
+    private Slice<ProductsWithoutInfoDto> loadProducts(Long cursor, int size) {
         PageRequest pageRequest = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
 
         if (cursor == null) {
@@ -209,8 +187,18 @@ public class ProductsService {
     }
 
 
-    @Transactional(readOnly = true)
+    /**
+     * 상품 상세 : 상품/노출 옵션은 productDetail 캐시(상품 변경 시 ProductCacheIndex로 삭제)에서 가져오고,
+     * 재고만 Redis 재고 키에서 MGET으로 읽어 덧씌운다. 캐시된 객체는 수정하지 않고 복사본을 반환한다.
+     */
     public ProductsDto getProductWithInfos(Long productId) {
+        ProductsDto detail = cached("productDetail", String.valueOf(productId),
+                () -> readOnly(() -> loadProductDetail(productId)),
+                loaded -> true);
+        return withLiveStock(detail);
+    }
+
+    private ProductsDto loadProductDetail(Long productId) {
         // Products와 연관된 ProductInfo를 함께 조회
         Products product = productsRepository.findByIdAndIsVisibleTrue(productId)
                 .orElseThrow(() -> new MadeByException(MadeByErrorCode.NO_PRODUCT));
@@ -228,6 +216,39 @@ public class ProductsService {
         return productDto;
     }
 
+    private ProductsDto withLiveStock(ProductsDto detail) {
+        Map<Long, Long> liveStocks = Map.of();
+        try {
+            liveStocks = stockShardService.readStockTotals(
+                    detail.getProductInfos().stream().map(ProductInfoDto::getId).toList());
+        } catch (Exception e) {
+            log.warn("Redis 재고 조회 실패, 캐시된 재고로 응답: productId = {}", detail.getId(), e);
+        }
+
+        List<ProductInfoDto> infos = new ArrayList<>(detail.getProductInfos().size());
+        for (ProductInfoDto info : detail.getProductInfos()) {
+            Long liveStock = liveStocks.get(info.getId());
+            infos.add(ProductInfoDto.builder()
+                    .id(info.getId())
+                    .price(info.getPrice())
+                    .stock(liveStock == null ? info.getStock() : liveStock.intValue())
+                    .size(info.getSize())
+                    .color(info.getColor())
+                    .productId(info.getProductId())
+                    .isLimited(info.isLimited())
+                    .isVisible(info.isVisible())
+                    .build());
+        }
+        return ProductsDto.builder()
+                .id(detail.getId())
+                .name(detail.getName())
+                .image(detail.getImage())
+                .description(detail.getDescription())
+                .category(detail.getCategory())
+                .productInfos(infos)
+                .build();
+    }
+
     // Products -> ProductsDto 변환 로직
     private ProductsDto convertToProductsDto(Products product) {
         return ProductsDto.builder()
@@ -284,11 +305,18 @@ public class ProductsService {
             throw new IllegalArgumentException("재고가 부족합니다.");
         }
 
-        productInfo.setStock(newStock);
-
-        // Redis에 동기화
-        String redisKey = "product_stock:" + productInfoId;
-        redissonClient.getBucket(redisKey).set(newStock);
+        // Redis 재고를 목표 재고로 맞추고 변경분만 DB에 반영 (아직 반영되지 않은 주문 변경분과 중복 계산 방지)
+        Long delta = stockShardService.adjustStock(productInfoId, newStock);
+        if (delta == null) {
+            // Redis에 적재되지 않은 상품은 DB 재고를 그대로 적재
+            productInfo.setStock(newStock);
+            stockShardService.seedStock(productInfoId, newStock, productInfo.isLimited());
+        } else if (delta != 0) {
+            kafkaTemplate.send(StockDeltaEvent.TOPIC, String.valueOf(productInfoId),
+                    new StockDeltaEvent(productInfoId, delta.intValue()));
+        }
+        productOutboxService.recordUpsert(productInfo.getProducts().getId());
+        soldOutPublisher.refresh(List.of(productInfoId)); // 품절/재입고 반영
         return true;
     }
 
@@ -308,45 +336,139 @@ public class ProductsService {
         }
     }
 
-    @Cacheable(value = "productSearch",
-            key = "'search:' + (#name?.trim() ?: '') + ':' + (#cursor ?: 0) + ':' + #size",
-            unless = "#result.getContent().isEmpty()")
-    @Transactional(readOnly = true)
-    public Slice<ProductsWithoutInfoDto> searchProductsByName(String name, Long cursor, int size) {
-        Pageable pageable = PageRequest.of(0, size); // 한 페이지 크기 지정
+    public CursorSliceDto<ProductsWithoutInfoDto> searchProductsByName(String name, String cursor, int size) {
+        return cached("productSearch",
+                "search:" + (name == null ? "" : name.trim()) + ":" + (cursor == null ? "" : cursor) + ":" + size,
+                () -> loadSearch(name, cursor, size),
+                result -> !result.getContent().isEmpty()); // 빈 결과는 SearchNegativeCache가 처리
+    }
+
+    private CursorSliceDto<ProductsWithoutInfoDto> loadSearch(String name, String cursor, int size) {
+        SearchCursor searchCursor = SearchCursor.decode(cursor);
 
-        try {
-            log.info("Elasticsearch query: name={}, from={}, size={}", name, cursor, size);
-            // 1. Elasticsearch에서 먼저 검색
-            Page<ProductDocument> searchResults = productElasticsearchRepository
-                    .findByNameContainingIgnoreCase(name.trim(), pageable);
-
-            if (!searchResults.isEmpty()) {
-                // Elasticsearch 결과를 ProductsWithoutInfoDto로 변환
-                List<ProductsWithoutInfoDto> productsInfo = searchResults.getContent().stream()
-                        .map(product -> new ProductsWithoutInfoDto(
-                                product.getId(),
-                                product.getName(),
-                                product.getImage(),
-                                product.getDescription(),
-                                product.getCategory()
-                        ))
-                        .toList();
-
-                return new SliceImpl<>(productsInfo, pageable, searchResults.hasNext());
+        // 0. 최근 결과가 없었던 검색어는 Elasticsearch/DB 조회 없이 빈 결과 반환
+        if (searchCursor == null && searchNegativeCache.isKnownEmpty(name)) {
+            return new CursorSliceDto<>(new ArrayList<>(), false, null);
+        }
+
+        // 1. Elasticsearch에서 먼저 검색 (DB 커서로 넘어온 요청은 DB에서 이어서 조회)
+        if (searchCursor == null || searchCursor.isElasticsearch()) {
+            // 서킷이 열려 있거나 시간 예산(time limiter)을 넘기면 기다리지 않고 DB로 폴백
+            try {
+                CursorSliceDto<ProductsWithoutInfoDto> result = elasticsearchGuard.execute(
+                        () -> searchElasticsearch(name.trim(), searchCursor, size));
+                if (!result.getContent().isEmpty() || searchCursor != null) {
+                    return result;
+                }
+                log.info("No results found in Elasticsearch, falling back to database search");
+            } catch (CallNotPermittedException | BulkheadFullException | TimeoutException | RejectedExecutionException e) {
+                // 보호 장치가 의도대로 동작한 경우 : 부하 시 대량으로 발생하므로 스택 트레이스 없이 남긴다
+                log.warn("Elasticsearch 호출 생략, DB 검색으로 폴백: {}", e.toString());
+            } catch (Exception e) {
+                log.error("Elasticsearch search failed: ", e);  // 에러 로그 추가
+            }
+
+            // Elasticsearch 커서는 점수 기준 정렬이라 DB에서 이어갈 수 없다.
+            // 첫 페이지부터 다시 주면 이미 본 결과가 중복되므로 2페이지 이후는 오류로 응답한다. (예외는 캐시되지 않음)
+            if (searchCursor != null) {
+                throw new MadeByException(MadeByErrorCode.SERVICE_UNAVAILABLE, "검색을 이어서 조회할 수 없습니다. 처음부터 다시 검색해주세요.");
             }
-        } catch (Exception e) {
-            log.error("Elasticsearch search failed: ", e);  // 에러 로그 추가
         }
 
-        // 2. Elasticsearch에서 결과가 없거나 에러 발생 시 Caffeine 캐시 사용, 캐시에도 없을 경우 DB 검색으로 폴백
-        log.info("No results found in Elasticsearch, falling back to database search");
-        List<ProductsWithoutInfoDto> products = productsRepository
-                .searchByNameWithCursor(name.trim(), cursor, pageable);
+        // 2. Elasticsearch에서 결과가 없거나 에러 발생 시 DB 검색(FULLTEXT 인덱스)으로 폴백 (DB 커서로 이어서 조회)
+        Long lastId = searchCursor == null ? null : searchCursor.id();
+        List<ProductsWithoutInfoDto> products = readOnly(() -> searchDatabase(name.trim(), lastId, size + 1));
 
-        Long nextCursor = products.isEmpty() ? null : products.get(products.size() - 1).getId();
+        if (products.isEmpty() && searchCursor == null) {
+            searchNegativeCache.markEmpty(name);
+        }
+
+        boolean hasNext = products.size() > size;
+        List<ProductsWithoutInfoDto> content = hasNext ? products.subList(0, size) : products;
+        String nextCursor = hasNext ? SearchCursor.ofDatabase(content.get(content.size() - 1).getId()) : null;
+        return new CursorSliceDto<>(new ArrayList<>(content), hasNext, nextCursor);
+    }
 
-        return new SliceImpl<>(products, pageable, nextCursor != null);
+    /**
+     * DB 검색 : ngram FULLTEXT 인덱스 사용
+     * ngram 토큰(2글자)보다 짧은 검색어는 인덱스로 찾을 수 없으므로 LIKE 검색
+     */
+    private List<ProductsWithoutInfoDto> searchDatabase(String name, Long cursor, int limit) {
+        String keyword = name.replace("\"", "").trim();
+        if (keyword.length() < NGRAM_TOKEN_SIZE) {
+            return productsRepository.searchByNameWithCursor(name, cursor, PageRequest.of(0, limit));
+        }
+        return productsRepository.fullTextSearchWithCursor("\"" + keyword + "\"", cursor, limit).stream()
+                .map(row -> new ProductsWithoutInfoDto(
+                        row.getId(),
+                        row.getName(),
+                        row.getImage(),
+                        row.getDescription(),
+                        row.getCategory()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * search_after 기반 Elasticsearch 검색 : (score, id) 내림차순으로 정렬하고 마지막 결과의 정렬값을 커서로 사용한다.
+     * 몇 번째 페이지든 size + 1 건만 조회하므로 깊은 페이지도 첫 페이지와 비용이 같다.
+     */
+    private CursorSliceDto<ProductsWithoutInfoDto> searchElasticsearch(String name, SearchCursor cursor, int size) {
+        log.info("Elasticsearch query: name={}, cursor={}, size={}", name, cursor, size);
+        NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .must(m -> m.match(mt -> mt.field("name").query(name)))
+                        .filter(f -> f.term(t -> t.field("isVisible").value(true)))))
+                .withSort(so -> so.score(sc -> sc.order(SortOrder.Desc)))
+                .withSort(so -> so.field(f -> f.field("id").order(SortOrder.Desc)))
+                .withMaxResults(size + 1)
+                .withTrackTotalHits(false);
+        if (cursor != null) {
+            queryBuilder.withSearchAfter(List.of(cursor.score(), cursor.id()));
+        }
+
+        List<SearchHit<ProductDocument>> hits = elasticsearchOperations
+                .search(queryBuilder.build(), ProductDocument.class)
+                .getSearchHits();
+
+        boolean hasNext = hits.size() > size;
+        List<SearchHit<ProductDocument>> page = hasNext ? hits.subList(0, size) : hits;
+        List<ProductsWithoutInfoDto> productsInfo = page.stream()
+                .map(SearchHit::getContent)
+                .map(product -> new ProductsWithoutInfoDto(
+                        product.getId(),
+                        product.getName(),
+                        product.getImage(),
+                        product.getDescription(),
+                        product.getCategory()
+                ))
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            SearchHit<ProductDocument> last = page.get(page.size() - 1);
+            nextCursor = SearchCursor.ofElasticsearch(last.getScore(), last.getContent().getId());
+        }
+        return new CursorSliceDto<>(productsInfo, hasNext, nextCursor);
+    }
+
+    /**
+     * 목록/검색 캐시 조회 : 키마다 한 요청만 MySQL/Elasticsearch를 조회하고(단일 로딩),
+     * 자주 조회되는 키는 만료 전에 백그라운드에서 갱신한다. (LayeredCache)
+     */
+    private <T> T cached(String cacheName, String key, Supplier<T> loader, Predicate<T> storable) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof LayeredCache layeredCache) {
+            return layeredCache.get(key, loader, storable);
+        }
+        return loader.get();
+    }
+
+    // 원본(DB) 조회만 읽기 전용 트랜잭션으로 감싼다 (캐시 조회/로딩 대기/Elasticsearch 호출 중에는 DB 커넥션을 잡지 않도록)
+    private <T> T readOnly(Supplier<T> loader) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> loader.get());
     }
 
     // 전체 캐시 내용 확인
@@ -373,7 +495,6 @@ public class ProductsService {
     }
 
     @Transactional
-    @CachePut(value = "products", key = "#productId")
     public ProductsDto updateProduct(Long productId, ProductsDto productsDto) {
         // DB에서 상품 조회
         Products product = productsRepository.findById(productId)
@@ -385,44 +506,24 @@ public class ProductsService {
         product.setImage(productsDto.getImage());
         product.setDescription(productsDto.getDescription());
 
-        // 저장 및 캐시 갱신
+        // 저장 및 변경 기록 (Elasticsearch, Redis, 캐시는 outbox 이벤트로 반영)
         Products updatedProduct = productsRepository.save(product);
-
-        // Elasticsearch에 데이터 동기화
-        try {
-            ProductDocument productDocument = convertToProductDocument(updatedProduct); // DTO → Elasticsearch 문서 변환
-            productElasticsearchRepository.save(productDocument);
-            log.info("Elasticsearch 동기화 성공: {}", productDocument);
-        } catch (Exception e) {
-            log.error("Elasticsearch 동기화 실패", e);
-            // 실패 처리 로직 (예: 별도 큐에 저장하여 재처리)
-        }
+        productOutboxService.recordUpsert(updatedProduct.getId());
 
         // DTO로 변환하여 반환
         return convertToProductsDto(updatedProduct);
     }
 
-    private ProductDocument convertToProductDocument(Products product) {
-        return ProductDocument.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .category(product.getCategory())
-                .image(product.getImage())
-                .description(product.getDescription())
-                .isVisible(product.isVisible())
-                .build();
-    }
-
     @Transactional
-    @CacheEvict(value = "products", key = "#productId")
     public void deleteProduct(Long productId) {
         // DB에서 상품 조회
         Products product = productsRepository.findById(productId)
                 .orElseThrow(() -> new MadeByException(MadeByErrorCode.NO_PRODUCT));
 
-        // DB, Elastic Search에서 삭제
+        // DB 삭제 및 변경 기록 (Elastic Search, Redis, 캐시는 outbox 이벤트로 반영)
+        List<Long> productInfoIds = product.getProductInfos().stream().map(ProductInfo::getId).toList();
         productsRepository.delete(product);
-        productElasticsearchRepository.deleteById(productId);
+        productOutboxService.recordDelete(productId, productInfoIds);
     }
 
 }
@@ -0,0 +1,72 @@
+package com.madeby.productservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 검색 결과 없음 캐시
+ * Elasticsearch와 DB 모두에서 결과가 없었던 검색어를 짧은 시간 동안 기억해, 같은 검색어(오타, 봇 요청)가
+ * 반복될 때 Elasticsearch/DB를 다시 조회하지 않고 바로 빈 결과를 반환한다.
+ * 상품이 추가/변경되면 결과가 생길 수 있으므로 상품 변경 이벤트를 처리한 인스턴스가 Redis pub/sub으로 알려
+ * 모든 인스턴스의 캐시를 비운다.
+ */
+@Component
+public class SearchNegativeCache {
+
+    public static final String CLEAR_TOPIC = "search_negative_cache_clear";
+
+    private final Cache<String, Boolean> emptyTerms;
+    private final Counter hitCounter;
+    private final Counter storeCounter;
+    private final RTopic clearTopic;
+
+    public SearchNegativeCache(MeterRegistry meterRegistry,
+                               RedissonClient redissonClient,
+                               @Value("${search.negative-cache.ttl-seconds:30}") long ttlSeconds,
+                               @Value("${search.negative-cache.max-size:50000}") long maxSize) {
+        this.emptyTerms = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+        this.hitCounter = meterRegistry.counter("product.search.negative_cache.hits");
+        this.storeCounter = meterRegistry.counter("product.search.negative_cache.stores");
+        meterRegistry.gauge("product.search.negative_cache.size", emptyTerms, Cache::estimatedSize);
+        this.clearTopic = redissonClient.getTopic(CLEAR_TOPIC, StringCodec.INSTANCE);
+        this.clearTopic.addListener(String.class, (channel, message) -> emptyTerms.invalidateAll());
+    }
+
+    public boolean isKnownEmpty(String term) {
+        boolean known = emptyTerms.getIfPresent(normalize(term)) != null;
+        if (known) {
+            hitCounter.increment();
+        }
+        return known;
+    }
+
+    public void markEmpty(String term) {
+        emptyTerms.put(normalize(term), Boolean.TRUE);
+        storeCounter.increment();
+    }
+
+    /**
+     * 모든 인스턴스의 검색 결과 없음 캐시 비우기 (발행한 인스턴스도 구독 중이므로 함께 비워진다)
+     */
+    public void clearAll() {
+        clearTopic.publishAsync("clear");
+    }
+
+    // 대소문자, 앞뒤/연속 공백 차이는 같은 검색어로 취급
+    private String normalize(String term) {
+        return term.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
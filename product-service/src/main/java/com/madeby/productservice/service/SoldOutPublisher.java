@@ -0,0 +1,54 @@
+package com.madeby.productservice.service;
+
+import com.madeBy.shared.events.SoldOutEvent;
+import com.madeBy.shared.util.StockRedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 품절 상태 발행
+ * 재고가 바뀐 상품의 Redis 재고 합계(샤드 합 + 아직 사용되지 않은 임대 재고)를 확인해 0 이하가 되면 품절 set에 넣고,
+ * 다시 재고가 생기면 set에서 뺀다. 상태가 바뀐 경우에만 SOLD_OUT_TOPIC으로 알린다.
+ * 재고가 바뀌는 모든 경로(write-behind 반영, 관리자 재고 변경, 정합성 복구, 재적재)에서 호출한다.
+ * 임대 재고는 order-service가 사용 수량을 주기적으로 임대 카운터에서 빼므로, 토큰을 모두 쓴 시점에 보내는 delta 0 알림으로 다시 확인한다.
+ * 같은 상품의 재고 변경분은 한 인스턴스(상품 ID로 파티셔닝된 consumer)에서만 처리하므로 상태 판단이 겹치지 않는다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SoldOutPublisher {
+
+    private final RedissonClient redissonClient;
+    private final StockShardService stockShardService;
+
+    public void refresh(Collection<Long> productInfoIds) {
+        if (productInfoIds.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, Long> totals = stockShardService.readStockTotals(productInfoIds);
+            RSet<String> soldOut = redissonClient.getSet(StockRedisKeys.SOLD_OUT_KEY, StringCodec.INSTANCE);
+            RTopic topic = redissonClient.getTopic(StockRedisKeys.SOLD_OUT_TOPIC);
+            totals.forEach((productInfoId, total) -> {
+                boolean changed = total <= 0
+                        ? soldOut.add(String.valueOf(productInfoId))
+                        : soldOut.remove(String.valueOf(productInfoId));
+                if (changed) {
+                    topic.publishAsync(new SoldOutEvent(productInfoId, total <= 0));
+                    log.info("품절 상태 변경: productInfoId = {}, soldOut = {}", productInfoId, total <= 0);
+                }
+            });
+        } catch (Exception e) {
+            // 게이트웨이 사전 차단용 정보이므로 실패해도 주문 처리에는 영향 없음 (order-service가 최종 판단)
+            log.error("품절 상태 갱신 실패: {}개 상품", productInfoIds.size(), e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.madeby.productservice.service;
+
+import com.madeby.productservice.dto.ProductStockDto;
+import com.madeby.productservice.repository.ProductInfoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis 재고와 DB(product_info.stock)의 정합성 점검
+ * 기대값 : Redis 재고(단일 키 또는 샤드 합) + 임대 재고 = DB 재고 + 아직 DB에 반영되지 않은 변경분
+ * Kafka로 전달 중인 변경분 때문에 일시적인 차이는 생길 수 있으므로,
+ * 같은 차이가 연속 두 번 관측된 상품만 불일치로 판단한다.
+ * 복구(repair)를 켜면 Redis를 기준으로 DB 재고를 보정하고, Redis 키가 사라진 상품은 DB 기준으로 다시 적재한다.
+ */
+@Service
+@Slf4j
+public class StockReconcileService {
+
+    private static final String LOCK_KEY = "stock_reconcile_lock";
+    private static final String ADJUST_STOCK_SQL = "UPDATE product_info SET stock = stock + ? WHERE id = ?";
+
+    private final ProductInfoRepository productInfoRepository;
+    private final StockWriteBehindService stockWriteBehindService;
+    private final StockShardService stockShardService;
+    private final SoldOutPublisher soldOutPublisher;
+    private final RedissonClient redissonClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${stock.reconcile.page-size:1000}")
+    private int pageSize;
+
+    @Value("${stock.reconcile.repair:false}")
+    private boolean repair;
+
+    // 직전 점검에서 관측된 차이 (productInfoId -> drift)
+    private final Map<Long, Long> suspects = new ConcurrentHashMap<>();
+
+    private final AtomicLong driftedSkus = new AtomicLong();
+    private final AtomicLong driftUnits = new AtomicLong();
+    private final AtomicLong missingSkus = new AtomicLong();
+    private final Counter repairedCounter;
+
+    public StockReconcileService(ProductInfoRepository productInfoRepository,
+                                 StockWriteBehindService stockWriteBehindService,
+                                 StockShardService stockShardService,
+                                 SoldOutPublisher soldOutPublisher,
+                                 RedissonClient redissonClient,
+                                 JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.productInfoRepository = productInfoRepository;
+        this.stockWriteBehindService = stockWriteBehindService;
+        this.stockShardService = stockShardService;
+        this.soldOutPublisher = soldOutPublisher;
+        this.redissonClient = redissonClient;
+        this.jdbcTemplate = jdbcTemplate;
+        meterRegistry.gauge("stock.reconcile.drifted.skus", driftedSkus);
+        meterRegistry.gauge("stock.reconcile.drift.units", driftUnits);
+        meterRegistry.gauge("stock.reconcile.missing.skus", missingSkus);
+        this.repairedCounter = meterRegistry.counter("stock.reconcile.repaired");
+    }
+
+    /**
+     * 전체 상품 재고 점검 (여러 인스턴스 중 하나만 실행)
+     */
+    @Scheduled(fixedDelayString = "${stock.reconcile.interval-ms:60000}",
+            initialDelayString = "${stock.reconcile.initial-delay-ms:60000}")
+    public void reconcile() {
+        RLock lock = redissonClient.getLock(LOCK_KEY);
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(0, 5, TimeUnit.MINUTES);
+            if (!locked) {
+                return;
+            }
+            // 로컬에 모여 있는 변경분을 먼저 반영해 비교 오차를 줄인다
+            stockWriteBehindService.flush();
+            runOnce();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("재고 정합성 점검 중 오류 발생", e);
+        } finally {
+            if (locked && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void runOnce() {
+        long start = System.currentTimeMillis();
+        long drifted = 0;
+        long units = 0;
+        long missing = 0;
+        long scanned = 0;
+        Map<Long, Long> observed = new HashMap<>();
+
+        Long lastId = 0L;
+        while (true) {
+            List<ProductStockDto> page = productInfoRepository.findStockPage(lastId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+            scanned += page.size();
+
+            Map<Long, Long> redisTotals = stockShardService.readStockTotals(page.stream().map(ProductStockDto::getId).toList());
+            List<Object[]> adjustments = new ArrayList<>();
+            List<Long> reseeded = new ArrayList<>();
+            for (ProductStockDto row : page) {
+                Long redisTotal = redisTotals.get(row.getId());
+                if (redisTotal == null) {
+                    missing++;
+                    log.warn("Redis 재고 키 없음: productInfoId = {}, dbStock = {}", row.getId(), row.getStock());
+                    if (repair) {
+                        stockShardService.seedStock(row.getId(), row.getStock(), row.isLimited());
+                        reseeded.add(row.getId());
+                        repairedCounter.increment();
+                    }
+                    continue;
+                }
+
+                long expected = row.getStock() + stockWriteBehindService.pendingDelta(row.getId());
+                long drift = redisTotal - expected;
+                if (drift == 0) {
+                    continue;
+                }
+                observed.put(row.getId(), drift);
+
+                // 직전 점검과 같은 차이일 때만 실제 불일치로 판단 (전달 중인 변경분 배제)
+                if (!Long.valueOf(drift).equals(suspects.get(row.getId()))) {
+                    continue;
+                }
+                drifted++;
+                units += Math.abs(drift);
+                log.warn("재고 불일치: productInfoId = {}, redis = {}, db = {}, drift = {}",
+                        row.getId(), redisTotal, expected, drift);
+                if (repair) {
+                    adjustments.add(new Object[]{drift, row.getId()});
+                }
+            }
+
+            if (!adjustments.isEmpty()) {
+                // 절대값이 아닌 차이만큼 보정해 동시에 반영되는 write-behind 변경분을 덮어쓰지 않는다
+                jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, adjustments);
+                adjustments.forEach(args -> observed.remove((Long) args[1]));
+                repairedCounter.increment(adjustments.size());
+            }
+            // 다시 적재한 상품은 재고가 생겼을 수 있으므로 품절 여부 갱신
+            soldOutPublisher.refresh(reseeded);
+
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        suspects.clear();
+        suspects.putAll(observed);
+        driftedSkus.set(drifted);
+        driftUnits.set(units);
+        missingSkus.set(missing);
+        log.info("재고 정합성 점검 완료: scanned = {}, drifted = {}, driftUnits = {}, missing = {}, {}ms",
+                scanned, drifted, units, missing, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,209 @@
+package com.madeby.productservice.service;
+
+import com.madeBy.shared.util.StockRedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis 재고 적재 및 샤드 재동기화.
+ * 한정 상품처럼 주문이 한 키에 몰리는 상품은 재고를 N개의 샤드 키로 나누어 저장하고,
+ * order-service는 샤드 중 하나를 골라 차감한다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockShardService {
+
+    // KEYS[1] = 재고 키, KEYS[2] = 샤드 개수, KEYS[3] = 임대 재고 / ARGV[1] = 목표 재고
+    // 임대 재고를 제외한 만큼을 Redis 재고로 설정(샤딩 상품은 균등 분배)하고 변경분을 반환
+    private static final String ADJUST_SCRIPT = """
+                local shards = tonumber(redis.call('GET', KEYS[2]) or '0')
+                local target = tonumber(ARGV[1]) - tonumber(redis.call('GET', KEYS[3]) or '0')
+                if target < 0 then
+                    target = 0
+                end
+                if shards == 0 then
+                    local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+                    redis.call('SET', KEYS[1], target)
+                    return target - current
+                end
+                local current = 0
+                for shard = 0, shards - 1 do
+                    current = current + tonumber(redis.call('GET', KEYS[1] .. ':' .. shard) or '0')
+                end
+                local base = math.floor(target / shards)
+                local remainder = target % shards
+                for shard = 0, shards - 1 do
+                    redis.call('SET', KEYS[1] .. ':' .. shard, base + (shard < remainder and 1 or 0))
+                end
+                return target - current
+            """;
+
+    private final RedissonClient redissonClient;
+
+    @Value("${stock.shard.count:1}")
+    private int shardCount; // 1이면 샤딩 비활성화
+
+    @Value("${stock.shard.limited-only:true}")
+    private boolean limitedOnly; // true면 한정 상품만 샤딩
+
+    public boolean isShardTarget(boolean isLimited) {
+        return shardCount > 1 && (isLimited || !limitedOnly);
+    }
+
+    /**
+     * 재고를 Redis에 적재한다. 샤딩 대상이면 샤드에 나누어 저장하고, 아니면 단일 키에 저장한다.
+     */
+    public void seedStock(Long productInfoId, int stock, boolean isLimited) {
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        appendSeed(batch, productInfoId, stock, isLimited, currentShardCount(productInfoId));
+        batch.execute();
+    }
+
+    /**
+     * 배치에 재고 키가 없을 때만 적재하는 명령을 추가한다. (기동 시 적재용, 운영 중인 재고 카운터를 덮어쓰지 않는다)
+     * 호출 측에서 재고 키/샤드 개수 키가 모두 없는 상품만 넘기고, 그 사이 다른 인스턴스가 적재한 키는 SETNX로 건너뛴다.
+     */
+    public void appendSeedIfAbsent(RBatch batch, Long productInfoId, int stock, boolean isLimited) {
+        if (isShardTarget(isLimited)) {
+            int base = stock / shardCount;
+            int remainder = stock % shardCount;
+            for (int shard = 0; shard < shardCount; shard++) {
+                int shardStock = base + (shard < remainder ? 1 : 0);
+                batch.getBucket(StockRedisKeys.shardKey(productInfoId, shard)).trySetAsync(shardStock);
+            }
+            batch.getBucket(StockRedisKeys.shardCountKey(productInfoId)).trySetAsync(shardCount);
+            return;
+        }
+        batch.getBucket(StockRedisKeys.stockKey(productInfoId)).trySetAsync(stock);
+    }
+
+    /**
+     * 배치에 재고 적재(덮어쓰기) 명령을 추가한다. (전체 재적재 시 호출 측에서 한 번에 execute)
+     * previousShards는 기존에 저장된 샤드 개수로, 남아 있는 샤드 키를 정리하는 데 사용한다.
+     */
+    public void appendSeed(RBatch batch, Long productInfoId, int stock, boolean isLimited, int previousShards) {
+        if (isShardTarget(isLimited)) {
+            int base = stock / shardCount;
+            int remainder = stock % shardCount;
+            for (int shard = 0; shard < shardCount; shard++) {
+                int shardStock = base + (shard < remainder ? 1 : 0);
+                batch.getBucket(StockRedisKeys.shardKey(productInfoId, shard)).setAsync(shardStock);
+            }
+            for (int shard = shardCount; shard < previousShards; shard++) {
+                batch.getBucket(StockRedisKeys.shardKey(productInfoId, shard)).deleteAsync();
+            }
+            batch.getBucket(StockRedisKeys.shardCountKey(productInfoId)).setAsync(shardCount);
+            batch.getBucket(StockRedisKeys.stockKey(productInfoId)).deleteAsync();
+            return;
+        }
+
+        batch.getBucket(StockRedisKeys.stockKey(productInfoId)).setAsync(stock);
+        if (previousShards > 0) {
+            for (int shard = 0; shard < previousShards; shard++) {
+                batch.getBucket(StockRedisKeys.shardKey(productInfoId, shard)).deleteAsync();
+            }
+            batch.getBucket(StockRedisKeys.shardCountKey(productInfoId)).deleteAsync();
+        }
+    }
+
+    /**
+     * 판매 가능 재고(Redis 재고 + 임대 재고)를 targetStock으로 맞추고 변경분을 반환한다. (관리자 재고 변경 시 호출)
+     * 샤딩 상품은 샤드 합계를 기준으로 계산한 뒤 샤드에 다시 균등 분배한다.
+     * 읽기와 쓰기를 Lua 한 번에 처리하므로 그 사이의 주문 차감이 덮어써지지 않는다.
+     *
+     * @return Redis 재고 변경분, Redis에 재고가 적재되지 않은 상품이면 null
+     */
+    public Long adjustStock(Long productInfoId, int targetStock) {
+        if (!readStockTotals(List.of(productInfoId)).containsKey(productInfoId)) {
+            return null;
+        }
+        Long delta = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                ADJUST_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(StockRedisKeys.stockKey(productInfoId), StockRedisKeys.shardCountKey(productInfoId),
+                        StockRedisKeys.leasedKey(productInfoId)),
+                String.valueOf(targetStock)
+        );
+        log.info("Redis 재고 조정 완료: productInfoId = {}, stock = {}, delta = {}", productInfoId, targetStock, delta);
+        return delta == null ? 0L : delta;
+    }
+
+    /**
+     * 샤드 간 재고를 다시 균등 분배한다. (관리자 재고 재적재 시 호출)
+     */
+    public void resyncShards(Long productInfoId, int stock, boolean isLimited) {
+        seedStock(productInfoId, stock, isLimited);
+        log.info("Redis 재고 재동기화 완료: productInfoId = {}, stock = {}, sharded = {}",
+                productInfoId, stock, isShardTarget(isLimited));
+    }
+
+    /**
+     * 상품별 Redis 재고 합계(재고 또는 샤드 합 + 임대 재고)를 MGET으로 조회한다. (샤딩 상품이 있으면 MGET 1회 추가)
+     * 재고 키가 없는 상품은 결과에서 제외된다.
+     */
+    public Map<Long, Long> readStockTotals(Collection<Long> productInfoIds) {
+        if (productInfoIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> keys = new ArrayList<>(productInfoIds.size() * 3);
+        for (Long id : productInfoIds) {
+            keys.add(StockRedisKeys.stockKey(id));
+            keys.add(StockRedisKeys.shardCountKey(id));
+            keys.add(StockRedisKeys.leasedKey(id));
+        }
+        Map<String, String> values = redissonClient.getBuckets(StringCodec.INSTANCE).get(keys.toArray(new String[0]));
+
+        // 샤딩 상품은 샤드 키를 한 번 더 MGET
+        List<String> shardKeys = new ArrayList<>();
+        for (Long id : productInfoIds) {
+            int shards = parse(values.get(StockRedisKeys.shardCountKey(id))).intValue();
+            for (int shard = 0; shard < shards; shard++) {
+                shardKeys.add(StockRedisKeys.shardKey(id, shard));
+            }
+        }
+        Map<String, String> shardValues = shardKeys.isEmpty()
+                ? Map.of()
+                : redissonClient.getBuckets(StringCodec.INSTANCE).get(shardKeys.toArray(new String[0]));
+
+        Map<Long, Long> totals = new HashMap<>();
+        for (Long id : productInfoIds) {
+            int shards = parse(values.get(StockRedisKeys.shardCountKey(id))).intValue();
+            long leased = parse(values.get(StockRedisKeys.leasedKey(id)));
+            if (shards > 0) {
+                long sum = 0;
+                for (int shard = 0; shard < shards; shard++) {
+                    sum += parse(shardValues.get(StockRedisKeys.shardKey(id, shard)));
+                }
+                totals.put(id, sum + leased);
+            } else if (values.containsKey(StockRedisKeys.stockKey(id))) {
+                totals.put(id, parse(values.get(StockRedisKeys.stockKey(id))) + leased);
+            }
+        }
+        return totals;
+    }
+
+    private Long parse(String value) {
+        return value == null ? 0L : Long.parseLong(value.trim());
+    }
+
+    public int currentShardCount(Long productInfoId) {
+        Integer shards = redissonClient.<Integer>getBucket(StockRedisKeys.shardCountKey(productInfoId)).get();
+        return shards == null ? 0 : shards;
+    }
+}
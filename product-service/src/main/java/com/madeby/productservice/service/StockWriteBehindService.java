@@ -0,0 +1,245 @@
+package com.madeby.productservice.service;
+
+import com.madeBy.shared.events.StockDeltaEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 재고 write-behind
+ * 주문 경로는 Redis 재고만 차감하고, 변경분(StockDeltaEvent)을 Kafka로 발행한다.
+ * 여기서는 변경분을 파티션/상품별로 합산해 두었다가 주기적으로 한 번의 배치 UPDATE로 DB에 반영한다.
+ * 반영 주기마다 재고가 바뀐 상품의 품절 여부도 갱신한다. (SoldOutPublisher)
+ * DB에 반영된 옵션은 sync-interval-ms마다 모아서 outbox에 재고 변경(STOCK_CHANGED)으로 기록해 검색 문서/product_info의 재고를 맞춘다.
+ * 재고 UPDATE는 누적(stock = stock + ?)이므로 멱등하지 않다. 그래서 파티션별로 반영한 offset을 같은 트랜잭션에서
+ * stock_delta_offset에 기록하고, 그보다 앞선 offset은 재수신해도 건너뛴다. (DB 반영 후 offset 커밋 전에 죽어도 한 번만 반영)
+ * Kafka offset은 DB 반영이 성공한 뒤에 커밋한다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockWriteBehindService {
+
+    private static final String UPDATE_STOCK_SQL = "UPDATE product_info SET stock = stock + ? WHERE id = ?";
+    private static final String SELECT_OFFSET_SQL = "SELECT next_offset FROM stock_delta_offset WHERE partition_id = ?";
+    private static final String LOCK_OFFSET_SQL = SELECT_OFFSET_SQL + " FOR UPDATE";
+    private static final String UPSERT_OFFSET_SQL = """
+            INSERT INTO stock_delta_offset (partition_id, next_offset) VALUES (?, ?)
+            ON DUPLICATE KEY UPDATE next_offset = GREATEST(next_offset, VALUES(next_offset))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SoldOutPublisher soldOutPublisher;
+    private final ProductOutboxService productOutboxService;
+
+    private final Map<Integer, PartitionBatch> pendingBatches = new HashMap<>(); // 파티션별 미반영 변경분 (flushLock)
+    private final Map<Integer, Long> nextOffsets = new HashMap<>(); // 파티션별로 다음에 받아야 할 offset (flushLock)
+    private final Set<Long> changedProductInfoIds = ConcurrentHashMap.newKeySet(); // 품절 여부를 다시 확인할 상품
+    private final Set<Long> flushedProductInfoIds = ConcurrentHashMap.newKeySet(); // 파생 데이터에 반영할 상품
+    private final Deque<Acknowledgment> pendingAcks = new ArrayDeque<>(); // DB 반영 후 커밋할 수신 배치
+    private final Object flushLock = new Object(); // 변경분 합산과 커밋 대상 배치를 함께 꺼내기 위한 락
+    private final Object applyLock = new Object(); // DB 반영은 한 번에 하나씩 (offset 순서 보장)
+
+    @KafkaListener(topics = StockDeltaEvent.TOPIC, groupId = "product-service-stock",
+            containerFactory = "stockDeltaListenerContainerFactory")
+    public void handleStockDelta(@Payload List<StockDeltaEvent> events,
+                                 @Header(KafkaHeaders.RECEIVED_PARTITION) List<Integer> partitions,
+                                 @Header(KafkaHeaders.OFFSET) List<Long> offsets,
+                                 Acknowledgment ack) {
+        synchronized (flushLock) {
+            for (int i = 0; i < events.size(); i++) {
+                int partition = partitions.get(i);
+                long offset = offsets.get(i);
+                if (offset < nextOffsets.computeIfAbsent(partition, this::loadNextOffset)) {
+                    continue; // 이미 DB에 반영됐거나 반영 대기 중인 변경분 (재수신)
+                }
+                nextOffsets.put(partition, offset + 1);
+
+                PartitionBatch batch = pendingBatches.computeIfAbsent(partition, p -> new PartitionBatch(offset));
+                batch.nextOffset = offset + 1;
+                StockDeltaEvent event = events.get(i);
+                if (event.getProductInfoId() == null) {
+                    continue;
+                }
+                changedProductInfoIds.add(event.getProductInfoId()); // delta 0 : 임대 토큰 소진 알림 (품절 여부만 다시 확인)
+                if (event.getDelta() != 0) {
+                    batch.deltas.merge(event.getProductInfoId(), (long) event.getDelta(), Long::sum);
+                }
+            }
+            pendingAcks.addLast(ack);
+        }
+    }
+
+    /**
+     * 모인 변경분을 DB에 일괄 반영
+     */
+    @Scheduled(fixedDelayString = "${stock.write-behind.flush-interval-ms:300}")
+    public void flush() {
+        refreshSoldOut();
+
+        synchronized (applyLock) {
+            Map<Integer, PartitionBatch> batches;
+            List<Acknowledgment> acks;
+            synchronized (flushLock) {
+                batches = new HashMap<>(pendingBatches);
+                pendingBatches.clear();
+                acks = new ArrayList<>(pendingAcks);
+                pendingAcks.clear();
+            }
+
+            if (!batches.isEmpty()) {
+                try {
+                    Set<Long> applied = new TransactionTemplate(transactionManager).execute(status -> apply(batches));
+                    flushedProductInfoIds.addAll(applied);
+                } catch (Exception e) {
+                    // 반영 실패분은 offset을 커밋하지 않고 다음 주기에 다시 시도
+                    synchronized (flushLock) {
+                        batches.forEach((partition, batch) -> pendingBatches.merge(partition, batch, PartitionBatch::prepend));
+                        for (int i = acks.size() - 1; i >= 0; i--) {
+                            pendingAcks.addFirst(acks.get(i));
+                        }
+                    }
+                    log.error("재고 변경분 DB 반영 실패: {}개 파티션", batches.size(), e);
+                    return;
+                }
+            }
+
+            // 반영이 끝난 배치만 수신 순서대로 offset 커밋 (커밋에 실패해 재수신돼도 stock_delta_offset으로 건너뜀)
+            for (Acknowledgment ack : acks) {
+                try {
+                    ack.acknowledge();
+                } catch (Exception e) {
+                    log.warn("재고 변경분 offset 커밋 실패 (재수신분은 반영 위치로 건너뜀): {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // 재고 UPDATE와 파티션별 반영 위치를 한 트랜잭션에서 기록하고, 반영한 옵션 ID를 반환
+    private Set<Long> apply(Map<Integer, PartitionBatch> batches) {
+        List<Object[]> stockArgs = new ArrayList<>();
+        List<Object[]> offsetArgs = new ArrayList<>();
+        Set<Long> productInfoIds = new HashSet<>();
+        for (Map.Entry<Integer, PartitionBatch> entry : batches.entrySet()) {
+            int partition = entry.getKey();
+            PartitionBatch batch = entry.getValue();
+            List<Long> locked = jdbcTemplate.queryForList(LOCK_OFFSET_SQL, Long.class, partition);
+            if (!locked.isEmpty() && locked.get(0) > batch.firstOffset) {
+                // 리밸런싱 중 다른 인스턴스가 먼저 반영한 구간 : 이 배치는 버리고 반영 위치를 다시 읽는다
+                // (커밋되지 않은 offset은 파티션을 맡은 인스턴스가 다시 받아 반영 위치 이후만 반영)
+                log.warn("이미 반영된 재고 변경분 건너뜀: partition = {}, offset = {} < {}", partition, batch.firstOffset, locked.get(0));
+                synchronized (flushLock) {
+                    nextOffsets.remove(partition);
+                }
+                continue;
+            }
+            batch.deltas.forEach((productInfoId, delta) -> {
+                if (delta != 0) {
+                    stockArgs.add(new Object[]{delta, productInfoId});
+                    productInfoIds.add(productInfoId);
+                }
+            });
+            offsetArgs.add(new Object[]{partition, batch.nextOffset});
+        }
+        if (!stockArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, stockArgs);
+        }
+        if (!offsetArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_OFFSET_SQL, offsetArgs);
+        }
+        log.debug("재고 변경분 DB 반영 완료: {}개 상품, {}개 파티션", stockArgs.size(), offsetArgs.size());
+        return productInfoIds;
+    }
+
+    private long loadNextOffset(int partition) {
+        List<Long> offsets = jdbcTemplate.queryForList(SELECT_OFFSET_SQL, Long.class, partition);
+        return offsets.isEmpty() ? 0L : offsets.get(0);
+    }
+
+    /**
+     * DB에 반영된 재고 변경을 outbox에 기록 (재고가 계속 바뀌는 상품도 주기당 한 번만 기록)
+     */
+    @Scheduled(fixedDelayString = "${stock.write-behind.sync-interval-ms:5000}")
+    public void syncDerivedViews() {
+        if (flushedProductInfoIds.isEmpty()) {
+            return;
+        }
+        List<Long> productInfoIds = new ArrayList<>(flushedProductInfoIds);
+        flushedProductInfoIds.removeAll(productInfoIds);
+        try {
+            productOutboxService.recordStockChanges(productInfoIds);
+        } catch (Exception e) {
+            // 기록 실패 시 다음 주기에 다시 시도
+            flushedProductInfoIds.addAll(productInfoIds);
+            log.error("재고 변경 outbox 기록 실패: {}개 옵션", productInfoIds.size(), e);
+        }
+    }
+
+    private void refreshSoldOut() {
+        if (changedProductInfoIds.isEmpty()) {
+            return;
+        }
+        List<Long> productInfoIds = new ArrayList<>(changedProductInfoIds);
+        changedProductInfoIds.removeAll(productInfoIds);
+        soldOutPublisher.refresh(productInfoIds);
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 변경분 (재고 정합성 점검용)
+     */
+    public long pendingDelta(Long productInfoId) {
+        synchronized (flushLock) {
+            long delta = 0;
+            for (PartitionBatch batch : pendingBatches.values()) {
+                delta += batch.deltas.getOrDefault(productInfoId, 0L);
+            }
+            return delta;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        syncDerivedViews();
+    }
+
+    // 한 파티션의 연속된 offset 구간 [firstOffset, nextOffset)에서 받은 상품별 변경분 합계
+    private static class PartitionBatch {
+        private final Map<Long, Long> deltas = new HashMap<>();
+        private final long firstOffset;
+        private long nextOffset;
+
+        private PartitionBatch(long firstOffset) {
+            this.firstOffset = firstOffset;
+            this.nextOffset = firstOffset;
+        }
+
+        // 반영에 실패한 앞 구간(failed)을 그 사이 새로 받은 뒤 구간(later)과 합친다
+        private static PartitionBatch prepend(PartitionBatch later, PartitionBatch failed) {
+            failed.nextOffset = Math.max(failed.nextOffset, later.nextOffset);
+            later.deltas.forEach((productInfoId, delta) -> failed.deltas.merge(productInfoId, delta, Long::sum));
+            return failed;
+        }
+    }
+}
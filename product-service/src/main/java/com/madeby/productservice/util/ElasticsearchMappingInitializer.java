@@ -0,0 +1,55 @@
+package com.madeby.productservice.util;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryResponse;
+import com.madeby.productservice.entity.ProductDocument;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * 기동 시 products 인덱스 매핑 동기화
+ * 인덱스가 없으면 설정/매핑과 함께 생성하고, 있으면 새로 추가된 필드(nameSuggest 등)만 매핑에 반영한다.
+ * 매핑만 추가하면 기존 문서에는 값이 없으므로, nameSuggest가 없는 문서는 update-by-query로 name을 복사해 채운다.
+ * (백그라운드 task로 실행하고 이미 채워진 문서는 건너뛰므로 여러 번 기동해도 한 번만 반영된다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ElasticsearchMappingInitializer {
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+
+    @PostConstruct
+    public void syncMapping() {
+        try {
+            IndexOperations indexOps = elasticsearchOperations.indexOps(ProductDocument.class);
+            if (!indexOps.exists()) {
+                indexOps.createWithMapping();
+                log.info("Elasticsearch 인덱스 생성: {}", indexOps.getIndexCoordinates().getIndexName());
+                return;
+            }
+            indexOps.putMapping();
+            backfillNameSuggest(indexOps.getIndexCoordinates().getIndexName());
+        } catch (Exception e) {
+            log.error("Elasticsearch 매핑 동기화 실패", e);
+        }
+    }
+
+    // nameSuggest가 없는 기존 문서에 name 복사 (기동을 막지 않도록 완료를 기다리지 않음)
+    private void backfillNameSuggest(String indexName) throws IOException {
+        UpdateByQueryResponse response = elasticsearchClient.updateByQuery(u -> u
+                .index(indexName)
+                .query(q -> q.bool(b -> b.mustNot(m -> m.exists(e -> e.field("nameSuggest")))))
+                .script(s -> s.inline(i -> i.lang("painless").source("ctx._source.nameSuggest = ctx._source.name")))
+                .conflicts(Conflicts.Proceed)
+                .waitForCompletion(false));
+        log.info("nameSuggest 백필 시작: index = {}, task = {}", indexName, response.task());
+    }
+}
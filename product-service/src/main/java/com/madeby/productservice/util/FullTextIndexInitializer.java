@@ -0,0 +1,39 @@
+package com.madeby.productservice.util;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기동 시 products.name ngram FULLTEXT 인덱스 생성 (없을 때만)
+ * Elasticsearch 장애 시 DB 검색이 LIKE '%name%' 풀스캔 대신 인덱스를 타도록 한다.
+ * JPA @Index로는 FULLTEXT/ngram parser를 지정할 수 없어 직접 생성한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FullTextIndexInitializer {
+    public static final String INDEX_NAME = "ft_products_name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void createIndexIfMissing() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                            "WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = ?",
+                    Integer.class, INDEX_NAME);
+            if (count != null && count > 0) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            jdbcTemplate.execute("ALTER TABLE products ADD FULLTEXT INDEX " + INDEX_NAME + " (name) WITH PARSER ngram");
+            log.info("FULLTEXT 인덱스 생성 완료: {}, {}ms", INDEX_NAME, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("FULLTEXT 인덱스 생성 실패: {}", INDEX_NAME, e);
+        }
+    }
+}
@@ -1,29 +1,49 @@
 package com.madeby.productservice.util;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.madeby.productservice.client.NaverApiClient;
 import com.madeby.productservice.dto.ProductInfoDto;
 import com.madeby.productservice.dto.ProductsDto;
-import com.madeby.productservice.entity.ProductInfo;
-import com.madeby.productservice.entity.Products;
 import com.madeby.productservice.repository.ProductsRepository;
-import com.madeby.productservice.service.ProductsService;
+import com.madeby.productservice.service.CatalogBulkImporter;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 초기 상품 데이터 적재
+ * catalog.bootstrap.source 에 따라 데이터를 가져와 CatalogBulkImporter로 chunk 단위 적재한다.
+ * - naver : 키워드별 네이버 쇼핑 API 검색 결과 (키워드 병렬 처리)
+ * - synthetic : 키워드별 가짜 상품 생성 (부하 테스트용, 키워드 병렬 처리)
+ * - file : 로컬 JSON(ProductsDto 배열) 또는 CSV 파일
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class ProductsInitializer {
-    private final ProductsService productsService;
+    private final CatalogBulkImporter catalogBulkImporter;
     private final ProductsRepository productsRepository;
     private final NaverApiClient naverApiClient;
+    private final ObjectMapper objectMapper;
 
     private static final int ITEMS_PER_REQUEST = 100; // 한 번의 요청당 가져올 상품 수
     private static final List<String> KEYWORDS = List.of(
@@ -34,7 +54,22 @@ public class ProductsInitializer {
     private static final List<String> COLORS = List.of("Red", "Blue", "Green", "Black", "White");
     private static final List<String> SIZES = List.of("S", "M", "L", "XL");
 
-    private final Random random = new Random();
+    @Value("${catalog.bootstrap.source:naver}")
+    private String source;
+
+    @Value("${catalog.bootstrap.file:}")
+    private String file;
+
+    @Value("${catalog.bootstrap.synthetic-count:500}")
+    private long syntheticCount; // synthetic 모드에서 생성할 전체 상품 수
+
+    @Value("${catalog.bootstrap.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${catalog.bootstrap.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicLong imported = new AtomicLong();
 
     @PostConstruct
     public void initializeProducts() {
@@ -42,45 +77,176 @@ public class ProductsInitializer {
             return; // 이미 데이터가 있다면 초기화하지 않음
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
+        long start = System.currentTimeMillis();
+        catalogBulkImporter.prepare();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            switch (source) {
+                case "file" -> importFile(Path.of(file), executor, futures);
+                case "synthetic" -> {
+                    long perKeyword = syntheticCount / KEYWORDS.size();
+                    for (int i = 0; i < KEYWORDS.size(); i++) {
+                        String keyword = KEYWORDS.get(i);
+                        long count = perKeyword + (i < syntheticCount % KEYWORDS.size() ? 1 : 0);
+                        futures.add(executor.submit(() -> importSynthetic(keyword, count)));
+                    }
+                }
+                default -> KEYWORDS.forEach(keyword -> futures.add(executor.submit(() -> importNaver(keyword))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            log.error("초기 상품 적재 중 오류 발생: source = {}", source, e);
+        } finally {
+            executor.shutdown();
+        }
+        log.info("초기 상품 적재 완료: source = {}, {}건, {}ms", source, imported.get(), System.currentTimeMillis() - start);
+    }
+
+    private void importNaver(String keyword) {
+        try {
+            // 네이버 API 호출
+            String response = naverApiClient.searchProducts(keyword, 1, ITEMS_PER_REQUEST);
+            JsonNode items = objectMapper.readTree(response).path("items");
 
-        for (String keyword : KEYWORDS) {
-            try {
-                // 네이버 API 호출
-                String response = naverApiClient.searchProducts(keyword, 1, ITEMS_PER_REQUEST);
-                JsonNode rootNode = objectMapper.readTree(response);
-                JsonNode items = rootNode.path("items");
+            if (items.isEmpty()) {
+                log.info("키워드 [{}]로 데이터가 없습니다.", keyword);
+                return;
+            }
 
-                if (items.isEmpty()) {
-                    System.out.println("키워드 [" + keyword + "]로 데이터가 없습니다.");
-                    continue; // 데이터가 없으면 다음 키워드로 진행
-                }
+            List<ProductsDto> chunk = new ArrayList<>();
+            for (JsonNode item : items) {
+                chunk.add(ProductsDto.builder()
+                        .name(item.path("title").asText().replaceAll("<[^>]*>", "")) // HTML 태그 제거
+                        .category(keyword)
+                        .description("")
+                        .image(item.path("image").asText())
+                        .productInfos(generateProductInfos())
+                        .build());
+            }
+            flush(chunk);
+            log.info("키워드 [{}]로 {}개의 데이터를 저장했습니다.", keyword, chunk.size());
+        } catch (Exception e) {
+            log.error("키워드 [{}] 처리 중 오류 발생: {}", keyword, e.getMessage());
+        }
+    }
 
-                // 가져온 데이터를 저장
-                for (JsonNode item : items) {
-                    ProductsDto productsDto = ProductsDto.builder()
-                            .name(item.path("title").asText().replaceAll("<[^>]*>", "")) // HTML 태그 제거
-                            .category(keyword)
-                            .description("")
-                            .image(item.path("image").asText())
-                            .productInfos(generateProductInfos())
-                            .build();
+    private void importSynthetic(String keyword, long count) {
+        List<ProductsDto> chunk = new ArrayList<>(batchSize);
+        for (long i = 1; i <= count; i++) {
+            chunk.add(ProductsDto.builder()
+                    .name(keyword + " " + COLORS.get((int) (i % COLORS.size())) + " " + i)
+                    .category(keyword)
+                    .description("")
+                    .image("")
+                    .productInfos(generateProductInfos())
+                    .build());
+            if (chunk.size() == batchSize) {
+                flush(chunk);
+                chunk = new ArrayList<>(batchSize);
+            }
+        }
+        flush(chunk);
+        log.info("키워드 [{}]로 {}개의 데이터를 생성했습니다.", keyword, count);
+    }
 
-                    productsService.registerNewProduct(productsDto);
+    /**
+     * 파일을 순차로 읽으면서 chunk 단위로 worker에 넘긴다. (동시에 대기하는 chunk 수를 제한해 힙 사용량 유지)
+     */
+    private void importFile(Path path, ExecutorService executor, List<Future<?>> futures) throws Exception {
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        ChunkConsumer submit = chunk -> {
+            inFlight.acquire();
+            futures.add(executor.submit(() -> {
+                try {
+                    flush(chunk);
+                } finally {
+                    inFlight.release();
                 }
+            }));
+        };
 
-                System.out.println("키워드 [" + keyword + "]로 100개의 데이터를 저장했습니다.");
+        if (path.toString().endsWith(".csv")) {
+            readCsv(path, submit);
+        } else {
+            readJson(path, submit);
+        }
+    }
 
-                // 1초 대기
-                Thread.sleep(1000);
+    // JSON : ProductsDto 배열 (스트리밍 파싱)
+    private void readJson(Path path, ChunkConsumer consumer) throws Exception {
+        try (InputStream in = Files.newInputStream(path);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON 파일은 상품 배열이어야 합니다: " + path);
+            }
+            List<ProductsDto> chunk = new ArrayList<>(batchSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                ProductsDto product = objectMapper.readValue(parser, ProductsDto.class);
+                if (product.getProductInfos() == null) {
+                    product.setProductInfos(new ArrayList<>());
+                }
+                chunk.add(product);
+                if (chunk.size() == batchSize) {
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            consumer.accept(chunk);
+        }
+    }
 
-            } catch (Exception e) {
-                System.err.println("키워드 [" + keyword + "] 처리 중 오류 발생: " + e.getMessage());
+    // CSV : name,category,image,description,price,stock,size,color,isLimited (연속된 같은 name+category 행은 한 상품의 옵션)
+    private void readCsv(Path path, ChunkConsumer consumer) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            reader.readLine(); // 헤더
+            List<ProductsDto> chunk = new ArrayList<>(batchSize);
+            ProductsDto current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] cols = line.split(",", -1);
+                if (current == null || !current.getName().equals(cols[0]) || !current.getCategory().equals(cols[1])) {
+                    if (chunk.size() == batchSize) {
+                        consumer.accept(chunk);
+                        chunk = new ArrayList<>(batchSize);
+                    }
+                    current = ProductsDto.builder()
+                            .name(cols[0])
+                            .category(cols[1])
+                            .image(cols[2])
+                            .description(cols[3])
+                            .productInfos(new ArrayList<>())
+                            .build();
+                    chunk.add(current);
+                }
+                current.getProductInfos().add(ProductInfoDto.builder()
+                        .price(new BigDecimal(cols[4]))
+                        .stock(Integer.parseInt(cols[5]))
+                        .size(cols[6])
+                        .color(cols[7])
+                        .isLimited(cols.length > 8 && Boolean.parseBoolean(cols[8]))
+                        .isVisible(true)
+                        .build());
             }
+            consumer.accept(chunk);
+        }
+    }
+
+    private void flush(List<ProductsDto> chunk) {
+        int count = catalogBulkImporter.importChunk(chunk);
+        long total = imported.addAndGet(count);
+        if (count > 0 && total / batchSize != (total - count) / batchSize) {
+            log.info("초기 상품 적재 진행: {}건", total);
         }
     }
 
     private List<ProductInfoDto> generateProductInfos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         List<ProductInfoDto> productInfos = new ArrayList<>();
 
         for (int j = 1; j <= 2; j++) {
@@ -98,4 +264,9 @@ public class ProductsInitializer {
 
         return productInfos;
     }
+
+    @FunctionalInterface
+    private interface ChunkConsumer {
+        void accept(List<ProductsDto> chunk) throws Exception;
+    }
 }
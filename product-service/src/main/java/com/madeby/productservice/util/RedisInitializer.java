@@ -1,28 +1,151 @@
 package com.madeby.productservice.util;
 
-import com.madeby.productservice.entity.ProductInfo;
+import com.madeBy.shared.util.StockRedisKeys;
+import com.madeby.productservice.dto.ProductStockDto;
 import com.madeby.productservice.repository.ProductInfoRepository;
+import com.madeby.productservice.service.SoldOutPublisher;
+import com.madeby.productservice.service.StockShardService;
+import com.madeby.productservice.service.StockWriteBehindService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Redis 재고 적재
+ * product_info를 id 순으로 페이지 단위 조회하고, 페이지마다 RBatch(파이프라인) 한 번으로 적재한다.
+ * - 기동 시 : Redis에 재고 키가 없는 상품만 적재한다. (운영 중인 재고 카운터를 DB 값으로 덮어쓰지 않음)
+ *   페이지가 끝날 때마다 마지막 id를 체크포인트로 남겨, 적재 도중 종료되면 다음 기동 시 이어서 적재한다.
+ * - 전체 재적재(reseedAll) : 관리자가 명시적으로 실행하는 작업으로, 모든 상품의 Redis 재고를 DB 값으로 덮어쓴다.
+ * 적재한 상품은 품절 여부를 다시 확인한다. (SoldOutPublisher)
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class RedisInitializer {
-    private final RedissonClient redissonClient;
+    private static final String CHECKPOINT_KEY = "product_stock_seed_checkpoint";
+
     private final ProductInfoRepository productInfoRepository;
+    private final StockShardService stockShardService;
+    private final StockWriteBehindService stockWriteBehindService;
+    private final SoldOutPublisher soldOutPublisher;
+    private final RedissonClient redissonClient;
+
+    @Value("${stock.seed.page-size:1000}")
+    private int pageSize;
+
+    @Value("${stock.seed.checkpoint-ttl-minutes:60}")
+    private long checkpointTtlMinutes; // 이 시간이 지난 체크포인트는 무시하고 처음부터 적재
 
     @PostConstruct
     public void initializeStocks() {
-        List<ProductInfo> allProductInfos = productInfoRepository.findAll();
-        for (ProductInfo info : allProductInfos) {
-            String redisKey = "product_stock:" + info.getId();
-            redissonClient.getBucket(redisKey).set(info.getStock());
+        RBucket<String> checkpoint = redissonClient.getBucket(CHECKPOINT_KEY, StringCodec.INSTANCE);
+        String saved = checkpoint.get();
+        Long lastId = saved == null ? 0L : Long.parseLong(saved);
+        if (lastId > 0) {
+            log.info("Redis 재고 적재 재개: lastId = {}", lastId);
+        }
+
+        long start = System.currentTimeMillis();
+        long scanned = 0;
+        long seeded = 0;
+        while (true) {
+            List<ProductStockDto> page = productInfoRepository.findStockPage(lastId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            Map<String, String> existing = loadStockKeys(page);
+            RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+            List<Long> seededIds = new ArrayList<>();
+            for (ProductStockDto info : page) {
+                // 이미 재고 키(단일 키 또는 샤드)가 있는 상품은 건너뜀
+                if (existing.containsKey(StockRedisKeys.stockKey(info.getId()))
+                        || existing.containsKey(StockRedisKeys.shardCountKey(info.getId()))) {
+                    continue;
+                }
+                stockShardService.appendSeedIfAbsent(batch, info.getId(), info.getStock(), info.isLimited());
+                seededIds.add(info.getId());
+            }
+            if (!seededIds.isEmpty()) {
+                batch.execute();
+                soldOutPublisher.refresh(seededIds);
+            }
+
+            lastId = page.get(page.size() - 1).getId();
+            scanned += page.size();
+            seeded += seededIds.size();
+            checkpoint.set(String.valueOf(lastId), Duration.ofMinutes(checkpointTtlMinutes));
+            log.info("Redis 재고 적재 진행: {}건 중 {}건 적재 (lastId = {})", scanned, seeded, lastId);
+
+            if (page.size() < pageSize) {
+                break;
+            }
         }
+
+        checkpoint.delete();
+        log.info("Redis 재고 적재 완료: {}건 중 {}건 적재, {}ms", scanned, seeded, System.currentTimeMillis() - start);
     }
 
+    /**
+     * 전체 재적재 : 모든 상품의 Redis 재고를 DB 재고로 덮어쓰고 샤드를 다시 나눈다.
+     * 진행 중인 주문/임대 재고는 반영되지 않으므로 주문이 멈춘 상태에서 관리자가 실행한다.
+     *
+     * @return 적재한 상품 수
+     */
+    public long reseedAll() {
+        // 로컬에 모여 있는 변경분을 먼저 DB에 반영
+        stockWriteBehindService.flush();
+
+        long start = System.currentTimeMillis();
+        long seeded = 0;
+        Long lastId = 0L;
+        while (true) {
+            List<ProductStockDto> page = productInfoRepository.findStockPage(lastId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            Map<String, String> previous = loadStockKeys(page);
+            RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+            for (ProductStockDto info : page) {
+                String shards = previous.get(StockRedisKeys.shardCountKey(info.getId()));
+                stockShardService.appendSeed(batch, info.getId(), info.getStock(), info.isLimited(),
+                        shards == null ? 0 : Integer.parseInt(shards));
+            }
+            batch.execute();
+            soldOutPublisher.refresh(page.stream().map(ProductStockDto::getId).toList());
+
+            lastId = page.get(page.size() - 1).getId();
+            seeded += page.size();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
 
+        log.warn("Redis 재고 전체 재적재 완료: {}건, {}ms", seeded, System.currentTimeMillis() - start);
+        return seeded;
+    }
+
+    // 페이지 상품들의 재고 키/샤드 개수를 MGET 한 번으로 조회 (적재 여부 확인, 남은 샤드 키 정리용)
+    private Map<String, String> loadStockKeys(List<ProductStockDto> page) {
+        List<String> keys = new ArrayList<>(page.size() * 2);
+        for (ProductStockDto info : page) {
+            keys.add(StockRedisKeys.stockKey(info.getId()));
+            keys.add(StockRedisKeys.shardCountKey(info.getId()));
+        }
+        return redissonClient.getBuckets(StringCodec.INSTANCE).get(keys.toArray(new String[0]));
+    }
 }
@@ -0,0 +1,171 @@
+package com.madeby.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LayeredCacheTest {
+
+    private static final String CACHE_NAME = "productDetail";
+
+    private CaffeineCache local;
+    private ConcurrentMapCache shared;
+    private List<String> published; // "cacheName:key"
+    private List<String> storedKeys;
+    private LayeredCache cache;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        local = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(10)).build());
+        shared = new ConcurrentMapCache(CACHE_NAME);
+        published = new ArrayList<>();
+        storedKeys = new ArrayList<>();
+
+        RLock lock = mock(RLock.class);
+        when(lock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+        CacheLoadCoordinator loadCoordinator =
+                new CacheLoadCoordinator(redissonClient, Duration.ofSeconds(1), Duration.ofSeconds(10), 0.8, 1);
+
+        cache = new LayeredCache(local, shared,
+                (cacheName, key) -> published.add(cacheName + ":" + key),
+                (cacheName, key, value) -> storedKeys.add(key),
+                loadCoordinator);
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executorService.submit(() -> {
+                    start.await();
+                    return cache.get(1L, () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(200); // 나머지 요청이 로딩 중에 도착하도록
+                        return "product-1";
+                    });
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("product-1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("product-1", shared.get("1").get());
+        assertEquals(List.of("1"), storedKeys);
+    }
+
+    @Test
+    void loadFailureIsSharedAndNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertNull(local.get("1"));
+        assertNull(shared.get("1"));
+        assertEquals("product-1", cache.get(1L, () -> "product-1"));
+    }
+
+    @Test
+    void readsThroughSharedCacheIntoLocal() {
+        shared.put("1", "from-redis");
+
+        assertEquals("from-redis", cache.get(1L, () -> fail("원본을 조회하면 안 됨")));
+        assertEquals("from-redis", local.get("1").get());
+    }
+
+    @Test
+    void unstorableResultIsReturnedButNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            List<String> result = cache.get("empty", () -> {
+                loads.incrementAndGet();
+                return List.<String>of();
+            }, list -> !list.isEmpty());
+            assertTrue(result.isEmpty());
+        }
+
+        assertEquals(2, loads.get());
+        assertNull(shared.get("empty"));
+    }
+
+    @Test
+    void evictRemovesBothLevelsAndNotifiesOtherInstances() {
+        cache.put(1L, "product-1");
+        published.clear();
+
+        cache.evict(1L);
+
+        assertNull(local.get("1"));
+        assertNull(shared.get("1"));
+        assertEquals(List.of(CACHE_NAME + ":1"), published);
+    }
+
+    @Test
+    void clearNotifiesOtherInstancesWithoutKey() {
+        cache.put(1L, "product-1");
+        published.clear();
+
+        cache.clear();
+
+        assertNull(cache.get(1L));
+        assertEquals(List.of(CACHE_NAME + ":null"), published);
+    }
+
+    @Test
+    void remoteInvalidationOnlyClearsLocalCache() {
+        cache.put(1L, "product-1");
+        shared.put("1", "changed-by-other-instance");
+        published.clear();
+
+        cache.invalidateLocal("1");
+
+        assertTrue(published.isEmpty());
+        assertEquals("changed-by-other-instance", cache.get(1L).get());
+    }
+
+    @Test
+    void storeListenerFailureSkipsSharedCache() {
+        LayeredCache failing = new LayeredCache(local, shared, (cacheName, key) -> { },
+                (cacheName, key, value) -> {
+                    throw new IllegalStateException("index down");
+                },
+                mock(CacheLoadCoordinator.class));
+
+        failing.put(1L, "product-1");
+
+        // 역인덱스가 없으면 상품 변경 시 지울 수 없으므로 L2에는 저장하지 않는다
+        assertNull(shared.get("1"));
+        assertEquals("product-1", local.get("1").get());
+    }
+}
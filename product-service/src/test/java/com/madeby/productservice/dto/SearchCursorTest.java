@@ -0,0 +1,65 @@
+package com.madeby.productservice.dto;
+
+import com.madeBy.shared.exception.MadeByErrorCode;
+import com.madeBy.shared.exception.MadeByException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCursorTest {
+
+    @Test
+    void elasticsearchCursorRoundTrip() {
+        SearchCursor cursor = SearchCursor.decode(SearchCursor.ofElasticsearch(12.5, 42L));
+
+        assertTrue(cursor.isElasticsearch());
+        assertEquals(12.5, cursor.score());
+        assertEquals(42L, cursor.id());
+    }
+
+    @Test
+    void databaseCursorRoundTrip() {
+        SearchCursor cursor = SearchCursor.decode(SearchCursor.ofDatabase(7L));
+
+        assertFalse(cursor.isElasticsearch());
+        assertEquals(SearchCursor.Source.DATABASE, cursor.source());
+        assertEquals(7L, cursor.id());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        // 점수/ID에 따라 Base64 패딩이나 +, / 가 섞이면 쿼리 파라미터로 그대로 쓸 수 없다
+        String token = SearchCursor.ofElasticsearch(0.123456789, Long.MAX_VALUE);
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertNull(SearchCursor.decode(null));
+        assertNull(SearchCursor.decode(""));
+        assertNull(SearchCursor.decode("  "));
+    }
+
+    @Test
+    void invalidTokensAreRejected() {
+        assertInvalid("!!not-base64!!");
+        assertInvalid(encode("x:1"));
+        assertInvalid(encode("s:abc:1"));
+        assertInvalid(encode("s:1.0"));
+        assertInvalid(encode("d:1:2"));
+        assertInvalid(encode("d:abc"));
+    }
+
+    private void assertInvalid(String token) {
+        MadeByException e = assertThrows(MadeByException.class, () -> SearchCursor.decode(token));
+        assertEquals(MadeByErrorCode.INVALID_REQUEST, e.getMadeByErrorCode());
+    }
+
+    private String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package com.madeby.productservice.service;
+
+import com.madeby.productservice.dto.ProductStockDto;
+import com.madeby.productservice.repository.ProductInfoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockReconcileServiceTest {
+
+    private static final Long PRODUCT_INFO_ID = 1L;
+
+    private ProductInfoRepository productInfoRepository;
+    private StockWriteBehindService stockWriteBehindService;
+    private StockShardService stockShardService;
+    private SoldOutPublisher soldOutPublisher;
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private StockReconcileService service;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        productInfoRepository = mock(ProductInfoRepository.class);
+        stockWriteBehindService = mock(StockWriteBehindService.class);
+        stockShardService = mock(StockShardService.class);
+        soldOutPublisher = mock(SoldOutPublisher.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        RLock lock = mock(RLock.class);
+        when(lock.tryLock(0, 5, TimeUnit.MINUTES)).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+
+        service = new StockReconcileService(productInfoRepository, stockWriteBehindService, stockShardService,
+                soldOutPublisher, redissonClient, jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(service, "pageSize", 1000);
+        ReflectionTestUtils.setField(service, "repair", true);
+
+        // DB 재고 10
+        when(productInfoRepository.findStockPage(eq(0L), any()))
+                .thenReturn(List.of(new ProductStockDto(PRODUCT_INFO_ID, 10, false)));
+    }
+
+    @Test
+    void repairsDriftOnlyAfterSameDriftIsObservedTwice() {
+        redisStock(8);
+
+        service.reconcile();
+        // 첫 관측은 전달 중인 변경분일 수 있으므로 보류
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(0, gauge("stock.reconcile.drifted.skus"));
+
+        service.reconcile();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE product_info"), captor.capture());
+        assertArrayEquals(new Object[]{-2L, PRODUCT_INFO_ID}, captor.getValue().get(0));
+        assertEquals(1, gauge("stock.reconcile.drifted.skus"));
+        assertEquals(2, gauge("stock.reconcile.drift.units"));
+    }
+
+    @Test
+    void changingDriftIsNotConfirmed() {
+        redisStock(8);
+        service.reconcile();
+        redisStock(7);
+        service.reconcile();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(0, gauge("stock.reconcile.drifted.skus"));
+    }
+
+    @Test
+    void pendingWriteBehindDeltaIsNotDrift() {
+        redisStock(8);
+        when(stockWriteBehindService.pendingDelta(PRODUCT_INFO_ID)).thenReturn(-2L);
+
+        service.reconcile();
+        service.reconcile();
+
+        verify(stockWriteBehindService, times(2)).flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void reportsDriftWithoutRepairWhenDisabled() {
+        ReflectionTestUtils.setField(service, "repair", false);
+        redisStock(12);
+
+        service.reconcile();
+        service.reconcile();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(1, gauge("stock.reconcile.drifted.skus"));
+        assertEquals(2, gauge("stock.reconcile.drift.units"));
+    }
+
+    @Test
+    void reseedsMissingRedisKeyFromDatabase() {
+        when(stockShardService.readStockTotals(anyCollection())).thenReturn(Map.of());
+
+        service.reconcile();
+
+        verify(stockShardService).seedStock(PRODUCT_INFO_ID, 10, false);
+        verify(soldOutPublisher).refresh(List.of(PRODUCT_INFO_ID));
+        assertEquals(1, gauge("stock.reconcile.missing.skus"));
+    }
+
+    private void redisStock(long total) {
+        when(stockShardService.readStockTotals(anyCollection())).thenReturn(Map.of(PRODUCT_INFO_ID, total));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
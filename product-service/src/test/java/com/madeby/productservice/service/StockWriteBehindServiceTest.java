@@ -0,0 +1,157 @@
+package com.madeby.productservice.service;
+
+import com.madeBy.shared.events.StockDeltaEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockWriteBehindServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SoldOutPublisher soldOutPublisher;
+    private StockWriteBehindService service;
+
+    @BeforeEach
+    void setUp() {
+        // stock_delta_offset 조회는 기본값(빈 목록)으로 "아직 반영된 offset 없음"
+        jdbcTemplate = mock(JdbcTemplate.class);
+        soldOutPublisher = mock(SoldOutPublisher.class);
+        service = new StockWriteBehindService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                soldOutPublisher, mock(ProductOutboxService.class));
+    }
+
+    @Test
+    void coalescesDeltasPerProductIntoOneUpdate() {
+        Acknowledgment ack = mock(Acknowledgment.class);
+        service.handleStockDelta(
+                List.of(new StockDeltaEvent(1L, -1), new StockDeltaEvent(1L, -2), new StockDeltaEvent(2L, 5)),
+                List.of(0, 0, 1), List.of(0L, 1L, 0L), ack);
+
+        assertEquals(-3, service.pendingDelta(1L));
+        assertEquals(5, service.pendingDelta(2L));
+        verify(ack, never()).acknowledge();
+
+        service.flush();
+
+        assertEquals(Map.of(1L, -3L, 2L, 5L), captureBatch("UPDATE product_info"));
+        // 파티션별 다음 offset을 같은 트랜잭션에서 기록
+        assertEquals(Map.of(0, 2L, 1, 1L), captureBatch("INSERT INTO stock_delta_offset"));
+        verify(ack).acknowledge();
+        assertEquals(0, service.pendingDelta(1L));
+    }
+
+    @Test
+    void skipsRedeliveredOffsets() {
+        service.handleStockDelta(List.of(new StockDeltaEvent(1L, -1), new StockDeltaEvent(1L, -1)),
+                List.of(0, 0), List.of(0L, 1L), mock(Acknowledgment.class));
+        service.flush();
+        clearInvocations(jdbcTemplate);
+
+        // offset 커밋 전에 재수신된 0, 1은 건너뛰고 2만 반영
+        service.handleStockDelta(
+                List.of(new StockDeltaEvent(1L, -1), new StockDeltaEvent(1L, -1), new StockDeltaEvent(1L, -4)),
+                List.of(0, 0, 0), List.of(0L, 1L, 2L), mock(Acknowledgment.class));
+        service.flush();
+
+        assertEquals(Map.of(1L, -4L), captureBatch("UPDATE product_info"));
+    }
+
+    @Test
+    void skipsOffsetsAlreadyStoredInDatabase() {
+        // 재시작 후 : stock_delta_offset에 3까지 반영되어 있음
+        when(jdbcTemplate.queryForList(startsWith("SELECT next_offset"), eq(Long.class), any()))
+                .thenReturn(List.of(3L));
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        service.handleStockDelta(List.of(new StockDeltaEvent(1L, -1), new StockDeltaEvent(1L, -2)),
+                List.of(0, 0), List.of(2L, 3L), ack);
+        service.flush();
+
+        assertEquals(Map.of(1L, -2L), captureBatch("UPDATE product_info"));
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void keepsBatchesAndAcksInOrderWhenUpdateFails() {
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE product_info"), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[0]);
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+
+        service.handleStockDelta(List.of(new StockDeltaEvent(1L, -1)), List.of(0), List.of(0L), first);
+        service.flush();
+
+        // 반영 실패 : offset을 커밋하지 않고 변경분을 유지
+        verify(first, never()).acknowledge();
+        assertEquals(-1, service.pendingDelta(1L));
+
+        service.handleStockDelta(List.of(new StockDeltaEvent(1L, -2)), List.of(0), List.of(1L), second);
+        service.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("UPDATE product_info"), captor.capture());
+        assertEquals(Map.of(1L, -3L), toMap(captor.getValue()));
+        assertEquals(Map.of(0, 2L), captureBatch("INSERT INTO stock_delta_offset"));
+
+        InOrder inOrder = inOrder(first, second);
+        inOrder.verify(first).acknowledge();
+        inOrder.verify(second).acknowledge();
+    }
+
+    @Test
+    void dropsBatchAlreadyAppliedByAnotherInstance() {
+        // 리밸런싱 중 다른 인스턴스가 같은 구간을 먼저 반영함
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Long.class), any())).thenReturn(List.of(5L));
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        service.handleStockDelta(List.of(new StockDeltaEvent(1L, -1)), List.of(0), List.of(0L), ack);
+        service.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE product_info"), anyList());
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void zeroDeltaOnlyRefreshesSoldOut() {
+        service.handleStockDelta(List.of(new StockDeltaEvent(7L, 0)), List.of(0), List.of(0L), mock(Acknowledgment.class));
+        service.flush();
+
+        verify(soldOutPublisher).refresh(List.of(7L));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE product_info"), anyList());
+    }
+
+    // 배치 인자 [값, 키]를 키 -> 값으로 변환
+    private Map<Object, Object> captureBatch(String sqlPrefix) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(sqlPrefix), captor.capture());
+        return toMap(captor.getValue());
+    }
+
+    private Map<Object, Object> toMap(List<Object[]> batchArgs) {
+        Map<Object, Object> result = new HashMap<>();
+        for (Object[] args : batchArgs) {
+            if (args[0] instanceof Integer partition) {
+                result.put(partition, args[1]); // offset : [partition, nextOffset]
+            } else {
+                result.put(args[1], args[0]); // 재고 : [delta, productInfoId]
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+package com.madeBy.shared.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 재고 예약 만료 알림
+ * order-service가 만료된 예약의 재고를 반환한 뒤 발행하고, pay-service는 아직 끝나지 않은 결제를 취소한다.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderExpiredEvent {
+    public static final String TOPIC = "order-expired-topic";
+
+    private Long orderId;
+}
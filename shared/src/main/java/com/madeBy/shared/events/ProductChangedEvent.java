@@ -0,0 +1,27 @@
+package com.madeBy.shared.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 상품 변경 알림 (product_outbox relay가 발행)
+ * 변경 내용 대신 상품 ID만 전달하고, 소비자는 현재 DB 상태를 다시 읽어 반영한다. (중복 수신해도 결과가 같음)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangedEvent {
+    public static final String TOPIC = "product-changed-topic";
+    public static final String CREATED = "CREATED";   // 신규 등록 (아직 어떤 목록 캐시에도 없음)
+    public static final String UPSERTED = "UPSERTED";
+    public static final String DELETED = "DELETED";
+    public static final String STOCK_CHANGED = "STOCK_CHANGED"; // write-behind 재고 반영 (검색 문서/product_info만 갱신, 캐시는 유지)
+
+    private Long outboxId;
+    private Long productId;
+    private String type;
+    private List<Long> productInfoIds; // 삭제 시 정리할 옵션 ID
+}
@@ -0,0 +1,17 @@
+package com.madeBy.shared.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 품절 상태 변경 알림 (Redis pub/sub, StockRedisKeys.SOLD_OUT_TOPIC)
+ * product-service가 Redis 재고 합계로 판단해 발행하고, api-gateway가 받아 품절 상품 주문을 바로 거절한다.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SoldOutEvent {
+    private Long productInfoId;
+    private boolean soldOut; // false면 재입고(품절 해제)
+}
@@ -0,0 +1,20 @@
+package com.madeBy.shared.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Redis 재고 변경분. (예약 시 음수, 예약 취소/복구 시 양수)
+ * product-service가 상품별로 모아 DB에 일괄 반영한다.
+ * delta가 0이면 DB 변경 없이 품절 여부만 다시 확인하라는 알림이다. (임대 토큰 소진 등 임대 카운터만 바뀐 경우)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockDeltaEvent {
+    public static final String TOPIC = "stock-delta-topic";
+
+    private Long productInfoId;
+    private int delta;
+}
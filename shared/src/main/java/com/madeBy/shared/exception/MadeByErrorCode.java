@@ -45,6 +45,9 @@ public enum MadeByErrorCode {
     NO_PAYMENT("해당 주문에 대한 결제 정보를 찾을 수 없습니다."),
     INVALID_STATUS("주문 상태값이 올바르지 않습니다."),
     STATUS_TIMEOUT("주문 상태를 확인하지 못했습니다."),
+    NOT_IN_WAITING_ROOM("대기열에 입장하지 않았습니다. 대기열에 먼저 입장해주세요."),
+    NOT_ADMITTED("대기열 입장 순서가 되지 않았거나 입장권이 만료되었습니다."),
+    NOT_LIMITED_PRODUCT("한정 상품이 아닙니다. 대기열 없이 주문할 수 있습니다."),
     
 
     DECRYPTION_ERROR("복호화에 실패했습니다."),
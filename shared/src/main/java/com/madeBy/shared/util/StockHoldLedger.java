@@ -0,0 +1,201 @@
+package com.madeBy.shared.util;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재고 예약 장부 (hold ledger)
+ * 주문별로 예약한 재고를 hash(stock_hold:{orderId})에 기록하고, 만료 시각을 sorted set(stock_hold_expiry)에 넣어 둔다.
+ * 결제 실패/타임아웃/만료 중 가장 먼저 도착한 쪽만 재고를 복구하고 장부를 지우므로 재고가 두 번 복구되지 않는다.
+ * 재고 복구 키는 Lua 안에서 샤드 개수를 확인해 정한다. (샤딩 상품은 orderId % 샤드 개수 샤드로 복구)
+ * 단일 Redis 서버 기준으로 Lua 안에서 키를 조합한다.
+ * shared 모듈을 스캔하는 모든 서비스에 생기지 않도록 컴포넌트가 아닌 일반 클래스로 두고,
+ * 예약 재고를 다루는 서비스(order-service, pay-service)만 StockHoldConfig에서 빈으로 등록한다.
+ */
+@RequiredArgsConstructor
+public class StockHoldLedger {
+
+    private static final Duration EXPIRED_MARK_TTL = Duration.ofDays(1); // 만료 후 늦게 도착한 결제 완료를 구분할 기간
+
+    private final RedissonClient redissonClient;
+
+    // KEYS[1] = hold hash, KEYS[2] = 만료 zset / ARGV[1] = orderId, ARGV[2] = 만료 시각, ARGV[3..] = productInfoId, quantity 쌍
+    private static final String RECORD_SCRIPT = """
+                for i = 3, #ARGV, 2 do
+                    redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+                end
+                redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+                return 1
+            """;
+
+    // 재고 복구 함수 (release, sweep 공통)
+    private static final String RESTORE_FUNCTION = """
+                local function restore(orderId, items, stockPrefix, shardPrefix)
+                    for i = 1, #items, 2 do
+                        local shards = tonumber(redis.call('GET', shardPrefix .. items[i]) or '0')
+                        local stockKey = stockPrefix .. items[i]
+                        if shards > 1 then
+                            stockKey = stockKey .. ':' .. (tonumber(orderId) % shards)
+                        end
+                        redis.call('INCRBY', stockKey, items[i + 1])
+                    end
+                end
+            """;
+
+    // KEYS[1] = hold hash, KEYS[2] = 만료 zset / ARGV[1] = orderId, ARGV[2] = 재고 키 prefix, ARGV[3] = 샤드 개수 키 prefix
+    // 장부가 남아 있으면 재고를 복구하고 복구한 productInfoId, quantity 쌍을 반환 (없으면 빈 목록)
+    private static final String RELEASE_SCRIPT = RESTORE_FUNCTION + """
+                local items = redis.call('HGETALL', KEYS[1])
+                redis.call('ZREM', KEYS[2], ARGV[1])
+                if #items == 0 then
+                    return {}
+                end
+                restore(ARGV[1], items, ARGV[2], ARGV[3])
+                redis.call('DEL', KEYS[1])
+                return items
+            """;
+
+    // KEYS[1] = hold hash, KEYS[2] = 만료 zset, KEYS[3] = 만료 표시 / ARGV[1] = orderId
+    // 결제 완료 : 재고는 판매 확정이므로 장부만 삭제 (장부가 있었으면 1, 만료로 재고가 반환된 주문이면 -1, 그 외 0)
+    private static final String COMMIT_SCRIPT = """
+                redis.call('ZREM', KEYS[2], ARGV[1])
+                if redis.call('DEL', KEYS[1]) == 1 then
+                    return 1
+                end
+                if redis.call('DEL', KEYS[3]) == 1 then
+                    return -1
+                end
+                return 0
+            """;
+
+    // KEYS[1] = 만료 zset / ARGV[1] = 현재 시각, ARGV[2] = 최대 건수, ARGV[3] = hold prefix, ARGV[4] = 재고 키 prefix, ARGV[5] = 샤드 개수 키 prefix,
+    //   ARGV[6] = 만료 표시 prefix, ARGV[7] = 만료 표시 TTL(초)
+    // 만료된 장부의 재고를 복구하고 orderId, productInfoId, quantity 묶음을 반환 (늦게 도착한 결제 완료를 구분하도록 만료 표시를 남긴다)
+    private static final String SWEEP_SCRIPT = RESTORE_FUNCTION + """
+                local orderIds = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+                local released = {}
+                for _, orderId in ipairs(orderIds) do
+                    local holdKey = ARGV[3] .. orderId
+                    local items = redis.call('HGETALL', holdKey)
+                    restore(orderId, items, ARGV[4], ARGV[5])
+                    for i = 1, #items, 2 do
+                        table.insert(released, orderId)
+                        table.insert(released, items[i])
+                        table.insert(released, items[i + 1])
+                    end
+                    redis.call('DEL', holdKey)
+                    redis.call('ZREM', KEYS[1], orderId)
+                    if #items > 0 then
+                        redis.call('SET', ARGV[6] .. orderId, '1', 'EX', tonumber(ARGV[7]))
+                    end
+                end
+                return released
+            """;
+
+    /**
+     * 주문의 예약 재고를 장부에 기록
+     */
+    public void record(Long orderId, Map<Long, Integer> quantities, Duration ttl) {
+        List<Object> args = new ArrayList<>();
+        args.add(String.valueOf(orderId));
+        args.add(String.valueOf(System.currentTimeMillis() + ttl.toMillis()));
+        quantities.forEach((productInfoId, quantity) -> {
+            args.add(String.valueOf(productInfoId));
+            args.add(String.valueOf(quantity));
+        });
+        script().eval(
+                RScript.Mode.READ_WRITE,
+                RECORD_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(StockRedisKeys.holdKey(orderId), StockRedisKeys.HOLD_EXPIRY_KEY),
+                args.toArray()
+        );
+    }
+
+    /**
+     * 장부에 남아 있는 예약 재고를 복구한다.
+     *
+     * @return 복구한 productInfoId별 수량 (이미 복구/확정된 주문이면 빈 Map)
+     */
+    public Map<Long, Integer> release(Long orderId) {
+        List<Object> items = script().eval(
+                RScript.Mode.READ_WRITE,
+                RELEASE_SCRIPT,
+                RScript.ReturnType.MULTI,
+                Arrays.asList(StockRedisKeys.holdKey(orderId), StockRedisKeys.HOLD_EXPIRY_KEY),
+                String.valueOf(orderId), StockRedisKeys.STOCK_KEY_PREFIX, StockRedisKeys.SHARD_COUNT_KEY_PREFIX
+        );
+        Map<Long, Integer> released = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < items.size(); i += 2) {
+            released.put(Long.valueOf(items.get(i).toString()), Integer.valueOf(items.get(i + 1).toString()));
+        }
+        return released;
+    }
+
+    /**
+     * 결제 완료 : 예약 재고를 판매로 확정하고 장부에서 제거
+     *
+     * @return EXPIRED면 예약이 만료되어 재고가 이미 반환된 주문 (호출 측에서 재고를 다시 확보해야 함)
+     */
+    public CommitResult commit(Long orderId) {
+        Long result = script().eval(
+                RScript.Mode.READ_WRITE,
+                COMMIT_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(StockRedisKeys.holdKey(orderId), StockRedisKeys.HOLD_EXPIRY_KEY,
+                        StockRedisKeys.expiredHoldKey(orderId)),
+                String.valueOf(orderId)
+        );
+        if (result == null || result == 0) {
+            return CommitResult.NOT_FOUND;
+        }
+        return result > 0 ? CommitResult.COMMITTED : CommitResult.EXPIRED;
+    }
+
+    /**
+     * 만료된 장부를 최대 limit 건까지 한 번의 Lua 호출로 복구
+     */
+    public List<ReleasedHold> sweepExpired(int limit) {
+        List<Object> items = script().eval(
+                RScript.Mode.READ_WRITE,
+                SWEEP_SCRIPT,
+                RScript.ReturnType.MULTI,
+                List.of(StockRedisKeys.HOLD_EXPIRY_KEY),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(limit), StockRedisKeys.HOLD_KEY_PREFIX,
+                StockRedisKeys.STOCK_KEY_PREFIX, StockRedisKeys.SHARD_COUNT_KEY_PREFIX,
+                StockRedisKeys.HOLD_EXPIRED_KEY_PREFIX, String.valueOf(EXPIRED_MARK_TTL.toSeconds())
+        );
+        List<ReleasedHold> released = new ArrayList<>();
+        for (int i = 0; i + 2 < items.size(); i += 3) {
+            released.add(new ReleasedHold(
+                    Long.valueOf(items.get(i).toString()),
+                    Long.valueOf(items.get(i + 1).toString()),
+                    Integer.parseInt(items.get(i + 2).toString())
+            ));
+        }
+        return released;
+    }
+
+    // 인자를 JSON이 아닌 문자열 그대로 전달 (Lua에서 키 조합/숫자 변환)
+    private RScript script() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+
+    public record ReleasedHold(Long orderId, Long productInfoId, int quantity) {
+    }
+
+    public enum CommitResult {
+        COMMITTED, // 예약 재고를 판매로 확정
+        EXPIRED,   // 만료로 재고가 이미 반환됨
+        NOT_FOUND  // 이미 확정/취소되었거나 기록되지 않은 주문
+    }
+}
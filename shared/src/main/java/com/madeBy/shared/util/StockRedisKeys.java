@@ -0,0 +1,50 @@
+package com.madeBy.shared.util;
+
+/**
+ * 재고 관련 Redis 키 규칙.
+ * product-service(적재), order-service(예약), pay-service(복구)가 같은 키를 바라보므로 한 곳에서 관리한다.
+ */
+public final class StockRedisKeys {
+
+    public static final String STOCK_KEY_PREFIX = "product_stock:";
+    public static final String SHARD_COUNT_KEY_PREFIX = "product_stock_shards:";
+    public static final String LEASED_KEY_PREFIX = "product_stock_leased:";
+    public static final String HOLD_KEY_PREFIX = "stock_hold:";
+    public static final String HOLD_EXPIRY_KEY = "stock_hold_expiry";
+    public static final String HOLD_EXPIRED_KEY_PREFIX = "stock_hold_expired:"; // 만료로 재고가 반환된 주문 표시
+    public static final String SOLD_OUT_KEY = "product_sold_out";          // 품절된 productInfoId (set)
+    public static final String SOLD_OUT_TOPIC = "product_sold_out_topic";  // 품절/품절 해제 알림 (pub/sub)
+
+    private StockRedisKeys() {
+    }
+
+    // 단일 재고 키 (샤딩되지 않은 상품)
+    public static String stockKey(Long productInfoId) {
+        return STOCK_KEY_PREFIX + productInfoId;
+    }
+
+    // 샤드 재고 키 : product_stock:{productInfoId}:{shard}
+    public static String shardKey(Long productInfoId, int shard) {
+        return STOCK_KEY_PREFIX + productInfoId + ":" + shard;
+    }
+
+    // 샤드 개수 키 : 값이 존재하면 해당 상품은 샤딩 모드로 동작
+    public static String shardCountKey(Long productInfoId) {
+        return SHARD_COUNT_KEY_PREFIX + productInfoId;
+    }
+
+    // order-service 인스턴스들이 로컬로 임대(lease)해 간 재고 합계
+    public static String leasedKey(Long productInfoId) {
+        return LEASED_KEY_PREFIX + productInfoId;
+    }
+
+    // 주문별 예약 재고 (hash : productInfoId -> quantity)
+    public static String holdKey(Long orderId) {
+        return HOLD_KEY_PREFIX + orderId;
+    }
+
+    // 만료로 예약 재고가 반환된 주문 표시
+    public static String expiredHoldKey(Long orderId) {
+        return HOLD_EXPIRED_KEY_PREFIX + orderId;
+    }
+}